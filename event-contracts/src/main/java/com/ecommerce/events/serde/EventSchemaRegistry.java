@@ -0,0 +1,83 @@
+package com.ecommerce.events.serde;
+
+import org.apache.avro.Schema;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * File-based stand-in for a schema registry. Schemas live at {@code <location>/<subject>/v<version>.avsc},
+ * numbered from 1 without gaps; by default they are read from {@code schemas/} on the classpath (this module
+ * ships them). A new version is added as a new file, never by editing an existing one, so every version a
+ * producer has ever written stays readable.
+ */
+public final class EventSchemaRegistry {
+
+    private static final Map<String, EventSchemaRegistry> INSTANCES = new ConcurrentHashMap<>();
+
+    /** Directory to read schemas from, or null for the classpath. */
+    private final Path location;
+    private final Map<String, NavigableMap<Integer, Schema>> schemas = new ConcurrentHashMap<>();
+
+    private EventSchemaRegistry(Path location) {
+        this.location = location;
+    }
+
+    /** Shared registry for a schema directory; null or blank means the classpath. */
+    public static EventSchemaRegistry forLocation(String location) {
+        String key = location == null ? "" : location.trim();
+        return INSTANCES.computeIfAbsent(key, k -> new EventSchemaRegistry(k.isEmpty() ? null : Path.of(k)));
+    }
+
+    public Schema getSchema(String subject, int version) {
+        Schema schema = versions(subject).get(version);
+        if (schema == null) {
+            throw new SerializationException("Unknown schema " + subject + " v" + version);
+        }
+        return schema;
+    }
+
+    public int getLatestVersion(String subject) {
+        return versions(subject).lastKey();
+    }
+
+    private NavigableMap<Integer, Schema> versions(String subject) {
+        NavigableMap<Integer, Schema> versions = schemas.computeIfAbsent(subject, this::load);
+        if (versions.isEmpty()) {
+            throw new SerializationException("No schemas registered for " + subject);
+        }
+        return versions;
+    }
+
+    private NavigableMap<Integer, Schema> load(String subject) {
+        NavigableMap<Integer, Schema> versions = new TreeMap<>();
+        for (int version = 1; ; version++) {
+            String name = subject + "/v" + version + ".avsc";
+            try (InputStream in = open(name)) {
+                if (in == null) {
+                    return versions;
+                }
+                // One parser per file: a parser refuses a second definition of the same record name.
+                versions.put(version, new Schema.Parser().parse(in));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read schema " + name, e);
+            }
+        }
+    }
+
+    private InputStream open(String name) throws IOException {
+        if (location == null) {
+            return EventSchemaRegistry.class.getClassLoader().getResourceAsStream("schemas/" + name);
+        }
+        Path file = location.resolve(name);
+        return Files.exists(file) ? Files.newInputStream(file) : null;
+    }
+}
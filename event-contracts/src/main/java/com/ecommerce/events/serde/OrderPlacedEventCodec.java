@@ -0,0 +1,153 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.EncoderFactory;
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Encodes {@link OrderPlacedEvent} as JSON or Avro binary, and decodes either, straight from and to the
+ * record's byte array.
+ * <p>
+ * Avro messages are framed as a zero magic byte, the 4-byte schema version and the Avro body, so a reader
+ * resolves the writer's schema from {@link EventSchemaRegistry} against the latest one it knows. JSON always
+ * starts with '{', which lets both formats share the topic while producers migrate. Any failure either way,
+ * including an event with a null field in Avro, surfaces as a {@link SerializationException}.
+ */
+public class OrderPlacedEventCodec {
+
+    public static final String SUBJECT = "order-placed";
+    private static final byte MAGIC_BYTE = 0;
+    private static final int HEADER_LENGTH = 5;
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    public enum Format {
+        JSON, AVRO;
+
+        public static Format of(String value) {
+            return value == null || value.isBlank() ? JSON : valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    private final EventSchemaRegistry schemaRegistry;
+    private final Format format;
+    private final int latestVersion;
+    private final Schema latestSchema;
+    private final Schema itemsSchema;
+    private final DatumWriter<GenericRecord> writer;
+    private final Map<Integer, DatumReader<GenericRecord>> readers = new ConcurrentHashMap<>();
+
+    public OrderPlacedEventCodec(EventSchemaRegistry schemaRegistry, Format format) {
+        this.schemaRegistry = schemaRegistry;
+        this.format = format;
+        this.latestVersion = schemaRegistry.getLatestVersion(SUBJECT);
+        this.latestSchema = schemaRegistry.getSchema(SUBJECT, latestVersion);
+        this.itemsSchema = latestSchema.getField("items").schema();
+        this.writer = new GenericDatumWriter<>(latestSchema);
+    }
+
+    public byte[] encode(OrderPlacedEvent event) {
+        try {
+            if (format == Format.JSON) {
+                return OBJECT_MAPPER.writeValueAsBytes(event);
+            }
+            int items = event.getItems() != null ? event.getItems().size() : 0;
+            ByteArrayOutputStream out = new ByteArrayOutputStream(HEADER_LENGTH + 24 + 24 * items);
+            out.write(MAGIC_BYTE);
+            out.write(latestVersion >>> 24);
+            out.write(latestVersion >>> 16);
+            out.write(latestVersion >>> 8);
+            out.write(latestVersion);
+            BinaryEncoder encoder = EncoderFactory.get().directBinaryEncoder(out, null);
+            writer.write(toRecord(event), encoder);
+            encoder.flush();
+            return out.toByteArray();
+        } catch (IOException | RuntimeException e) {
+            // Avro rejects null fields (none is nullable in the schema) with a NullPointerException.
+            throw new SerializationException("Failed to encode OrderPlacedEvent " + event.getOrderId(), e);
+        }
+    }
+
+    public OrderPlacedEvent decode(byte[] data) {
+        if (data == null || data.length == 0) {
+            throw new SerializationException("Empty OrderPlacedEvent message");
+        }
+        try {
+            if (data[0] != MAGIC_BYTE) {
+                return OBJECT_MAPPER.readValue(data, OrderPlacedEvent.class);
+            }
+            if (data.length < HEADER_LENGTH) {
+                throw new SerializationException("Truncated OrderPlacedEvent message");
+            }
+            int version = (data[1] & 0xff) << 24 | (data[2] & 0xff) << 16 | (data[3] & 0xff) << 8 | (data[4] & 0xff);
+            BinaryDecoder decoder = DecoderFactory.get().binaryDecoder(data, HEADER_LENGTH, data.length - HEADER_LENGTH, null);
+            return fromRecord(readerFor(version).read(null, decoder));
+        } catch (SerializationException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new SerializationException("Failed to decode OrderPlacedEvent", e);
+        }
+    }
+
+    private DatumReader<GenericRecord> readerFor(int version) {
+        return readers.computeIfAbsent(version,
+                v -> new GenericDatumReader<>(schemaRegistry.getSchema(SUBJECT, v), latestSchema));
+    }
+
+    private GenericRecord toRecord(OrderPlacedEvent event) {
+        List<OrderPlacedEvent.OrderItemDto> items = event.getItems() != null ? event.getItems() : List.of();
+        GenericData.Array<GenericRecord> itemRecords = new GenericData.Array<>(items.size(), itemsSchema);
+        for (OrderPlacedEvent.OrderItemDto item : items) {
+            GenericRecord itemRecord = new GenericData.Record(itemsSchema.getElementType());
+            itemRecord.put("productId", item.getProductId());
+            itemRecord.put("quantity", item.getQuantity());
+            itemRecord.put("price", item.getPrice());
+            itemRecords.add(itemRecord);
+        }
+        GenericRecord record = new GenericData.Record(latestSchema);
+        record.put("orderId", event.getOrderId());
+        record.put("userId", event.getUserId());
+        record.put("items", itemRecords);
+        record.put("totalAmount", event.getTotalAmount());
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static OrderPlacedEvent fromRecord(GenericRecord record) {
+        List<GenericRecord> itemRecords = (List<GenericRecord>) record.get("items");
+        List<OrderPlacedEvent.OrderItemDto> items = new ArrayList<>(itemRecords.size());
+        for (GenericRecord itemRecord : itemRecords) {
+            items.add(OrderPlacedEvent.OrderItemDto.builder()
+                    .productId((Long) itemRecord.get("productId"))
+                    .quantity((Integer) itemRecord.get("quantity"))
+                    .price((Double) itemRecord.get("price"))
+                    .build());
+        }
+        return OrderPlacedEvent.builder()
+                .orderId((Long) record.get("orderId"))
+                .userId((Long) record.get("userId"))
+                .items(items)
+                .totalAmount((Double) record.get("totalAmount"))
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value deserializer for {@link OrderPlacedEvent}; reads JSON and Avro messages alike.
+ * Optional consumer property {@value OrderPlacedEventSerializer#SCHEMA_LOCATION_CONFIG}.
+ */
+public class OrderPlacedEventDeserializer implements Deserializer<OrderPlacedEvent> {
+
+    private OrderPlacedEventCodec codec;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        codec = new OrderPlacedEventCodec(
+                EventSchemaRegistry.forLocation((String) configs.get(OrderPlacedEventSerializer.SCHEMA_LOCATION_CONFIG)),
+                OrderPlacedEventCodec.Format.JSON);
+    }
+
+    @Override
+    public OrderPlacedEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (codec == null) {
+            configure(Map.of(), false);
+        }
+        return codec.decode(data);
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+
+/**
+ * Kafka value serializer for {@link OrderPlacedEvent}. Producer properties:
+ * {@value #FORMAT_CONFIG} ({@code json} or {@code avro}, default json) and
+ * {@value #SCHEMA_LOCATION_CONFIG} (schema directory, default the classpath).
+ */
+public class OrderPlacedEventSerializer implements Serializer<OrderPlacedEvent> {
+
+    public static final String FORMAT_CONFIG = "events.order-placed.format";
+    public static final String SCHEMA_LOCATION_CONFIG = "events.schema-registry.location";
+
+    private OrderPlacedEventCodec codec;
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        codec = new OrderPlacedEventCodec(
+                EventSchemaRegistry.forLocation((String) configs.get(SCHEMA_LOCATION_CONFIG)),
+                OrderPlacedEventCodec.Format.of((String) configs.get(FORMAT_CONFIG)));
+    }
+
+    @Override
+    public byte[] serialize(String topic, OrderPlacedEvent event) {
+        if (event == null) {
+            return null;
+        }
+        if (codec == null) {
+            configure(Map.of(), false);
+        }
+        return codec.encode(event);
+    }
+}
@@ -0,0 +1,93 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation per message of the Kafka value path, before and after the typed serdes. {@code string*} is the old
+ * path: {@code writeValueAsString} and the String serializer's {@code getBytes} on the producer, the String
+ * deserializer's {@code new String} and {@code readValue(String)} on the consumer. {@code codec*} is
+ * {@link OrderPlacedEventSerializer}/{@link OrderPlacedEventDeserializer} on the record bytes, as JSON and as Avro.
+ * Read the {@code gc.alloc.rate.norm} rows (bytes per operation):
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="OrderPlacedEventAllocationBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacedEventAllocationBenchmark {
+
+    private static final String TOPIC = "order-placed";
+
+    @Param({"5"})
+    public int items;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final OrderPlacedEventSerializer jsonSerializer = new OrderPlacedEventSerializer();
+    private final OrderPlacedEventSerializer avroSerializer = new OrderPlacedEventSerializer();
+    private final OrderPlacedEventDeserializer deserializer = new OrderPlacedEventDeserializer();
+    private OrderPlacedEvent event;
+    private byte[] json;
+    private byte[] avro;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        jsonSerializer.configure(Map.of(OrderPlacedEventSerializer.FORMAT_CONFIG, "json"), false);
+        avroSerializer.configure(Map.of(OrderPlacedEventSerializer.FORMAT_CONFIG, "avro"), false);
+        deserializer.configure(Map.of(), false);
+        event = OrderPlacedEvents.withItems(items);
+        json = objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+        avro = avroSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public byte[] stringSerialize() throws Exception {
+        return objectMapper.writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public OrderPlacedEvent stringDeserialize() throws Exception {
+        return objectMapper.readValue(new String(json, StandardCharsets.UTF_8), OrderPlacedEvent.class);
+    }
+
+    @Benchmark
+    public byte[] codecSerializeJson() {
+        return jsonSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public OrderPlacedEvent codecDeserializeJson() {
+        return deserializer.deserialize(TOPIC, json);
+    }
+
+    @Benchmark
+    public byte[] codecSerializeAvro() {
+        return avroSerializer.serialize(TOPIC, event);
+    }
+
+    @Benchmark
+    public OrderPlacedEvent codecDeserializeAvro() {
+        return deserializer.deserialize(TOPIC, avro);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode and decode cost of {@link OrderPlacedEventCodec} as JSON and as Avro binary, for orders of 1, 5 and 20
+ * items. The encoded size of each combination is printed at setup, since JMH has no column for it.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="OrderPlacedEventCodecBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPlacedEventCodecBenchmark {
+
+    @Param({"JSON", "AVRO"})
+    public OrderPlacedEventCodec.Format format;
+
+    @Param({"1", "5", "20"})
+    public int items;
+
+    private OrderPlacedEventCodec codec;
+    private OrderPlacedEvent event;
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        codec = new OrderPlacedEventCodec(EventSchemaRegistry.forLocation(null), format);
+        event = OrderPlacedEvents.withItems(items);
+        encoded = codec.encode(event);
+        System.out.printf("%n%s message with %d items: %d bytes%n", format, items, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(event);
+    }
+
+    @Benchmark
+    public OrderPlacedEvent decode() {
+        return codec.decode(encoded);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderPlacedEventCodecTest {
+
+    private final EventSchemaRegistry classpath = EventSchemaRegistry.forLocation(null);
+    private final OrderPlacedEventCodec json = new OrderPlacedEventCodec(classpath, OrderPlacedEventCodec.Format.JSON);
+    private final OrderPlacedEventCodec avro = new OrderPlacedEventCodec(classpath, OrderPlacedEventCodec.Format.AVRO);
+
+    @Test
+    void jsonRoundTrip() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(5);
+
+        byte[] encoded = json.encode(event);
+
+        assertThat(encoded[0]).isEqualTo((byte) '{');
+        assertThat(json.decode(encoded)).isEqualTo(event);
+    }
+
+    @Test
+    void avroRoundTripIsFramedWithTheSchemaVersion() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(5);
+
+        byte[] encoded = avro.encode(event);
+
+        assertThat(Arrays.copyOf(encoded, 5)).containsExactly(0, 0, 0, 0, 1);
+        assertThat(avro.decode(encoded)).isEqualTo(event);
+    }
+
+    @Test
+    void decodingDetectsTheFormatFromTheFirstByte() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(2);
+
+        assertThat(json.decode(avro.encode(event))).isEqualTo(event);
+        assertThat(avro.decode(json.encode(event))).isEqualTo(event);
+    }
+
+    @Test
+    void orderWithoutItemsRoundTripsAsAnEmptyList() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(0);
+
+        assertThat(avro.decode(avro.encode(event)).getItems()).isEmpty();
+    }
+
+    @Test
+    void olderSchemaVersionIsResolvedAgainstTheReadersLatest() throws URISyntaxException {
+        OrderPlacedEventCodec readerOnV2 = new OrderPlacedEventCodec(
+                EventSchemaRegistry.forLocation(testSchemas().toString()), OrderPlacedEventCodec.Format.AVRO);
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(3);
+
+        byte[] writtenWithV1 = avro.encode(event);
+
+        assertThat(EventSchemaRegistry.forLocation(testSchemas().toString())
+                .getLatestVersion(OrderPlacedEventCodec.SUBJECT)).isEqualTo(2);
+        assertThat(readerOnV2.decode(writtenWithV1)).isEqualTo(event);
+    }
+
+    @Test
+    void unknownSchemaVersionIsRejected() {
+        byte[] encoded = avro.encode(OrderPlacedEvents.withItems(1));
+        encoded[4] = 9;
+
+        assertThatThrownBy(() -> avro.decode(encoded))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("Unknown schema order-placed v9");
+    }
+
+    @Test
+    void nullFieldFailsAvroEncodingWithASerializationException() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(1);
+        event.setUserId(null);
+
+        assertThatThrownBy(() -> avro.encode(event))
+                .isInstanceOf(SerializationException.class)
+                .hasMessageContaining("OrderPlacedEvent " + event.getOrderId());
+    }
+
+    @Test
+    void malformedInputFailsWithASerializationException() {
+        assertThatThrownBy(() -> avro.decode(new byte[0])).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> avro.decode(new byte[]{0, 0, 0})).isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> avro.decode(new byte[]{0, 0, 0, 0, 1, 2}))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> json.decode("{\"orderId\":".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(SerializationException.class);
+    }
+
+    /** v1 as shipped plus a v2 that adds a defaulted field. */
+    private static Path testSchemas() throws URISyntaxException {
+        return Path.of(Objects.requireNonNull(
+                OrderPlacedEventCodecTest.class.getClassLoader().getResource("schemas-v2")).toURI());
+    }
+}
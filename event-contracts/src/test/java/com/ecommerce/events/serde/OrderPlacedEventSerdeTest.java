@@ -0,0 +1,80 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The serdes as Kafka drives them: configured from client properties, then called per record. */
+class OrderPlacedEventSerdeTest {
+
+    private static final String TOPIC = "order-placed";
+
+    private final Serializer<OrderPlacedEvent> jsonSerializer = serializer("json");
+    private final Serializer<OrderPlacedEvent> avroSerializer = serializer("avro");
+    private final Deserializer<OrderPlacedEvent> deserializer = new OrderPlacedEventDeserializer();
+
+    @AfterEach
+    void tearDown() {
+        jsonSerializer.close();
+        avroSerializer.close();
+        deserializer.close();
+    }
+
+    @Test
+    void jsonRecordsRoundTrip() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(3);
+
+        byte[] value = jsonSerializer.serialize(TOPIC, event);
+
+        assertThat(value[0]).isEqualTo((byte) '{');
+        assertThat(deserializer.deserialize(TOPIC, value)).isEqualTo(event);
+    }
+
+    @Test
+    void avroRecordsRoundTrip() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(3);
+
+        byte[] value = avroSerializer.serialize(TOPIC, event);
+
+        assertThat(value[0]).isZero();
+        assertThat(deserializer.deserialize(TOPIC, value)).isEqualTo(event);
+    }
+
+    @Test
+    void jsonWrittenByThePreviousStringSerializerIsStillRead() throws Exception {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(2);
+        byte[] legacy = new ObjectMapper().writeValueAsString(event).getBytes(StandardCharsets.UTF_8);
+
+        assertThat(deserializer.deserialize(TOPIC, legacy)).isEqualTo(event);
+    }
+
+    @Test
+    void nullPayloadsPassThrough() {
+        assertThat(avroSerializer.serialize(TOPIC, null)).isNull();
+        assertThat(deserializer.deserialize(TOPIC, null)).isNull();
+    }
+
+    @Test
+    void unconfiguredSerdesDefaultToJsonAndTheClasspathSchemas() {
+        OrderPlacedEvent event = OrderPlacedEvents.withItems(1);
+
+        byte[] value = new OrderPlacedEventSerializer().serialize(TOPIC, event);
+
+        assertThat(value[0]).isEqualTo((byte) '{');
+        assertThat(new OrderPlacedEventDeserializer().deserialize(TOPIC, value)).isEqualTo(event);
+    }
+
+    private static Serializer<OrderPlacedEvent> serializer(String format) {
+        Serializer<OrderPlacedEvent> serializer = new OrderPlacedEventSerializer();
+        serializer.configure(Map.of(OrderPlacedEventSerializer.FORMAT_CONFIG, format), false);
+        return serializer;
+    }
+}
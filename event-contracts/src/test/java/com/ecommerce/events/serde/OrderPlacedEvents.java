@@ -0,0 +1,34 @@
+package com.ecommerce.events.serde;
+
+import com.ecommerce.events.OrderPlacedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Representative order-placed events for the codec tests and benchmarks. */
+final class OrderPlacedEvents {
+
+    private OrderPlacedEvents() {
+    }
+
+    static OrderPlacedEvent withItems(int items) {
+        List<OrderPlacedEvent.OrderItemDto> lines = new ArrayList<>(items);
+        double total = 0;
+        for (int i = 0; i < items; i++) {
+            double price = 19.99 + i * 7.25;
+            int quantity = 1 + i % 3;
+            lines.add(OrderPlacedEvent.OrderItemDto.builder()
+                    .productId(100_000L + i * 37)
+                    .quantity(quantity)
+                    .price(price)
+                    .build());
+            total += price * quantity;
+        }
+        return OrderPlacedEvent.builder()
+                .orderId(48_213_377L)
+                .userId(1_204_551L)
+                .items(lines)
+                .totalAmount(total)
+                .build();
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.inventoryservice.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ddl-auto=update never drops constraints, so databases created before stock buckets still carry the
+ * single-column unique constraint on product_id. Drops it so a product can own more than one bucket row.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InventorySchemaUpgrade implements ApplicationRunner {
+
+    private static final String FIND_PRODUCT_ID_UNIQUE_CONSTRAINTS = """
+            SELECT c.conname FROM pg_constraint c
+            JOIN pg_class t ON t.oid = c.conrelid
+            JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = c.conkey[1]
+            WHERE t.relname = 'inventory' AND c.contype = 'u'
+              AND array_length(c.conkey, 1) = 1 AND a.attname = 'product_id'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<String> constraints = jdbcTemplate.queryForList(FIND_PRODUCT_ID_UNIQUE_CONSTRAINTS, String.class);
+        for (String constraint : constraints) {
+            jdbcTemplate.execute("ALTER TABLE inventory DROP CONSTRAINT \"" + constraint + "\"");
+            log.info("Dropped legacy unique constraint {} on inventory.product_id", constraint);
+        }
+    }
+}
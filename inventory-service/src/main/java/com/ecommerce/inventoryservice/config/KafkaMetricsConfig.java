@@ -0,0 +1,11 @@
+package com.ecommerce.inventoryservice.config;
+
+import com.ecommerce.kafka.KafkaListenerMetrics;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/** Listener timing and rebalance metrics for every Kafka listener container (see {@link KafkaListenerMetrics}). */
+@Configuration
+@Import(KafkaListenerMetrics.class)
+public class KafkaMetricsConfig {
+}
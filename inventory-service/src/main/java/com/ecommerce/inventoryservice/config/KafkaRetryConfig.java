@@ -0,0 +1,51 @@
+package com.ecommerce.inventoryservice.config;
+
+import com.ecommerce.inventoryservice.exception.InsufficientStockException;
+import com.ecommerce.inventoryservice.exception.ResourceNotFoundException;
+import com.ecommerce.kafka.DeadLetterReplayService;
+import com.ecommerce.kafka.OrderPlacedRetryConfigSupport;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+
+import java.util.List;
+
+/**
+ * Non-blocking retries for order-placed. A failed record is republished to
+ * order-placed-inventory-retry-N and retried there after an exponentially growing delay, so the
+ * main partition keeps flowing. Once the attempts are used up, or straight away for errors a retry
+ * cannot fix, the record goes to order-placed-inventory-dlt (see {@link DeadLetterReplayService}).
+ * <p>
+ * The suffixes carry the service name because payment-service consumes the same topic.
+ */
+@Configuration
+@EnableKafkaRetryTopic
+public class KafkaRetryConfig extends OrderPlacedRetryConfigSupport {
+
+    public static final String RETRY_SUFFIX = "-inventory-retry";
+    public static final String DLT_SUFFIX = "-inventory-dlt";
+
+    public KafkaRetryConfig(KafkaProperties kafkaProperties,
+                            @Value("${inventory.retry.attempts:4}") int attempts,
+                            @Value("${inventory.retry.initial-interval-ms:1000}") long initialIntervalMs,
+                            @Value("${inventory.retry.multiplier:5.0}") double multiplier,
+                            @Value("${inventory.retry.max-interval-ms:60000}") long maxIntervalMs) {
+        super(kafkaProperties, RETRY_SUFFIX, DLT_SUFFIX, attempts, initialIntervalMs, multiplier, maxIntervalMs);
+    }
+
+    @Bean
+    public RetryTopicConfiguration orderPlacedRetryTopic() {
+        return retryTopics()
+                .notRetryOn(List.of(InsufficientStockException.class, ResourceNotFoundException.class))
+                .dltHandlerMethod("orderEventConsumer", "handleDeadLetter")
+                .create(retryTemplate());
+    }
+
+    @Bean
+    public DeadLetterReplayService deadLetterReplayService() {
+        return deadLetterReplayService("inventory-service-dlt-replay");
+    }
+}
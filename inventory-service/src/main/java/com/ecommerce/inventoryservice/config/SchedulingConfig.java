@@ -0,0 +1,12 @@
+package com.ecommerce.inventoryservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/** Scheduled jobs run in the service only, not under the replay profile. */
+@Configuration
+@EnableScheduling
+@Profile("!replay")
+public class SchedulingConfig {
+}
@@ -0,0 +1,26 @@
+package com.ecommerce.inventoryservice.controller;
+
+import com.ecommerce.inventoryservice.exception.ValidationException;
+import com.ecommerce.kafka.DeadLetterReplayResponse;
+import com.ecommerce.kafka.DeadLetterReplayService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/inventory/dead-letters")
+@RequiredArgsConstructor
+public class DeadLetterController {
+
+    private static final int MAX_REPLAY = 10_000;
+
+    private final DeadLetterReplayService deadLetterReplayService;
+
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replay(@RequestParam(defaultValue = "100") int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("limit must be positive");
+        }
+        return ResponseEntity.ok(deadLetterReplayService.replay(Math.min(limit, MAX_REPLAY)));
+    }
+}
@@ -1,8 +1,11 @@
 package com.ecommerce.inventoryservice.controller;
 
+import com.ecommerce.inventoryservice.dto.BucketRequest;
 import com.ecommerce.inventoryservice.dto.InventoryRequest;
 import com.ecommerce.inventoryservice.dto.InventoryResponse;
+import com.ecommerce.inventoryservice.dto.LedgerLevelResponse;
 import com.ecommerce.inventoryservice.service.InventoryService;
+import com.ecommerce.inventoryservice.service.StockLedger;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -17,6 +20,7 @@ import java.util.List;
 public class InventoryController {
 
     private final InventoryService inventoryService;
+    private final StockLedger stockLedger;
 
     @PostMapping
     public ResponseEntity<InventoryResponse> createOrUpdate(@Valid @RequestBody InventoryRequest request) {
@@ -28,6 +32,16 @@ public class InventoryController {
         return ResponseEntity.ok(inventoryService.getByProductId(productId));
     }
 
+    @GetMapping("/product/{productId}/ledger")
+    public ResponseEntity<LedgerLevelResponse> getLedgerLevel(@PathVariable Long productId) {
+        return ResponseEntity.ok(stockLedger.levelOf(productId));
+    }
+
+    @PutMapping("/product/{productId}/buckets")
+    public ResponseEntity<InventoryResponse> rebalance(@PathVariable Long productId, @Valid @RequestBody BucketRequest request) {
+        return ResponseEntity.ok(inventoryService.rebalance(productId, request.getCount()));
+    }
+
     @GetMapping
     public ResponseEntity<List<InventoryResponse>> getAll() {
         return ResponseEntity.ok(inventoryService.getAll());
@@ -0,0 +1,21 @@
+package com.ecommerce.inventoryservice.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BucketRequest {
+
+    @NotNull(message = "Bucket count is required")
+    @Min(value = 1, message = "Bucket count must be at least 1")
+    @Max(value = 64, message = "Bucket count cannot exceed 64")
+    private Integer count;
+}
@@ -16,4 +16,5 @@ public class InventoryResponse {
     private Integer quantity;
     private Integer reserved;
     private Integer available;
+    private Integer buckets;
 }
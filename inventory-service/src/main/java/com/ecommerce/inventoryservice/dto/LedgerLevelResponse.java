@@ -0,0 +1,24 @@
+package com.ecommerce.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerLevelResponse {
+
+    private Long productId;
+    private Integer quantity;
+    private Integer reserved;
+    private LocalDateTime snapshotAsOf;
+    private Integer tailMovements;
+    private Integer inventoryQuantity;
+    private Integer inventoryReserved;
+    private Boolean drift;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.inventoryservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLevelChangedEvent {
+
+    private Long productId;
+    private Integer available;
+    private Boolean lowStock;
+    private Instant timestamp;
+}
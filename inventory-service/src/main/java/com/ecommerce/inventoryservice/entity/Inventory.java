@@ -2,9 +2,14 @@ package com.ecommerce.inventoryservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
+/**
+ * One stock bucket of a product. Hot SKUs can be split across several buckets so concurrent
+ * reservations lock different rows; the product's stock is the sum over its buckets.
+ */
 @Entity
-@Table(name = "inventory", uniqueConstraints = @UniqueConstraint(columnNames = "productId"))
+@Table(name = "inventory", uniqueConstraints = @UniqueConstraint(columnNames = {"productId", "bucket"}))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,9 +21,14 @@ public class Inventory {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private Long productId;
 
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer bucket = 0;
+
     @Column(nullable = false)
     @Builder.Default
     private Integer quantity = 0;
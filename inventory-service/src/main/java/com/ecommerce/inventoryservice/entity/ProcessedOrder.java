@@ -0,0 +1,26 @@
+package com.ecommerce.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * An order whose stock has been reserved. Written in the same transaction as the reservation, so an
+ * order-placed event delivered or replayed again finds its row and is skipped.
+ */
+@Entity
+@Table(name = "processed_orders")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessedOrder {
+
+    @Id
+    private Long orderId;
+
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
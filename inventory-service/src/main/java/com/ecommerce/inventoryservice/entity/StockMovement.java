@@ -0,0 +1,52 @@
+package com.ecommerce.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Append-only record of a single change to a product's stock. Rows are never updated. */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_created_at", columnList = "createdAt"),
+        @Index(name = "idx_stock_movements_product_created_at", columnList = "productId, createdAt")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movements_seq")
+    @SequenceGenerator(name = "stock_movements_seq", sequenceName = "stock_movements_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private MovementType type;
+
+    @Column(nullable = false)
+    private Integer quantityDelta;
+
+    @Column(nullable = false)
+    private Integer reservedDelta;
+
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+    }
+
+    public enum MovementType {
+        RESERVE, RELEASE, RESTOCK, ADJUST
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.inventoryservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/** Stock level of a product folded from all movements created before {@code asOf}. */
+@Entity
+@Table(name = "stock_snapshots")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockSnapshot {
+
+    @Id
+    private Long productId;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer quantity = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer reserved = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime asOf;
+}
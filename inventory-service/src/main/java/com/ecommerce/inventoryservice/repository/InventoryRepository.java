@@ -1,16 +1,41 @@
 package com.ecommerce.inventoryservice.repository;
 
 import com.ecommerce.inventoryservice.entity.Inventory;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
-import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
 
-    Optional<Inventory> findByProductId(Long productId);
+    List<Inventory> findByProductIdOrderByBucket(Long productId);
 
     List<Inventory> findByProductIdIn(List<Long> productIds);
+
+    int countByProductId(Long productId);
+
+    @Query("select sum(i.quantity - i.reserved) from Inventory i where i.productId = :productId")
+    Long sumAvailableByProductId(@Param("productId") Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Inventory i where i.productId = :productId order by i.bucket")
+    List<Inventory> lockByProductId(@Param("productId") Long productId);
+
+    /** Reserves from a single bucket if it alone has enough available stock. Returns the number of rows updated. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Inventory i set i.reserved = i.reserved + :quantity " +
+            "where i.productId = :productId and i.bucket = :bucket and i.quantity - i.reserved >= :quantity")
+    int reserveFromBucket(@Param("productId") Long productId, @Param("bucket") int bucket, @Param("quantity") int quantity);
+
+    /** Releases from a single bucket if it alone holds enough reserved stock. Returns the number of rows updated. */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Inventory i set i.reserved = i.reserved - :quantity " +
+            "where i.productId = :productId and i.bucket = :bucket and i.reserved >= :quantity")
+    int releaseFromBucket(@Param("productId") Long productId, @Param("bucket") int bucket, @Param("quantity") int quantity);
 }
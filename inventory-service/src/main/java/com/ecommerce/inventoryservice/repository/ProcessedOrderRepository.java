@@ -0,0 +1,21 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.entity.ProcessedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ProcessedOrderRepository extends JpaRepository<ProcessedOrder, Long> {
+
+    /**
+     * Records the order unless it is already recorded. Returns 1 if recorded, 0 if it was already there; a
+     * concurrent insert of the same order waits for the other transaction and then returns 0.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_orders (order_id, processed_at) VALUES (:orderId, now()) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int markProcessed(@Param("orderId") Long orderId);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.entity.StockMovement;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
+
+    /** Net quantity/reserved change per product for movements created in {@code [from, to)}. */
+    @Query("select m.productId, sum(m.quantityDelta), sum(m.reservedDelta) from StockMovement m " +
+            "where m.createdAt >= :from and m.createdAt < :to group by m.productId")
+    List<Object[]> sumDeltasByProduct(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    List<StockMovement> findByProductIdAndCreatedAtGreaterThanEqualOrderById(Long productId, LocalDateTime from);
+
+    List<StockMovement> findByProductIdOrderById(Long productId);
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.inventoryservice.repository;
+
+import com.ecommerce.inventoryservice.entity.StockSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface StockSnapshotRepository extends JpaRepository<StockSnapshot, Long> {
+
+    @Query("select max(s.asOf) from StockSnapshot s")
+    Optional<LocalDateTime> findLatestAsOf();
+
+    /**
+     * Takes the projector's transaction-scoped advisory lock (an arbitrary application-wide id); false while
+     * another instance holds it.
+     */
+    @Query(value = "SELECT pg_try_advisory_xact_lock(4702800028)", nativeQuery = true)
+    boolean tryLockProjection();
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.kafka.OrderPlacedReplayer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Replays order-placed history through {@link InventoryService#handleOrderPlaced} to rebuild inventory state
+ * ({@code inventory.replay.*}, see {@link OrderPlacedReplayer}).
+ * <p>
+ * Events are applied one at a time, and a slice stops at the first that fails. The handler records each order it
+ * reserves in {@code processed_orders}, so orders the database already holds are skipped: rerunning after a
+ * failure, or over a range that was already applied, reserves nothing twice. Rebuilding into emptied inventory
+ * tables needs {@code processed_orders} emptied too.
+ */
+@Slf4j
+@Component
+@Profile("replay")
+public class InventoryReplayer extends OrderPlacedReplayer {
+
+    private final InventoryService inventoryService;
+
+    public InventoryReplayer(KafkaProperties kafkaProperties, ConfigurableApplicationContext context,
+                             InventoryService inventoryService) {
+        super(kafkaProperties, context, "inventory.replay", "inventory-service-replay");
+        this.inventoryService = inventoryService;
+    }
+
+    @Override
+    protected int apply(List<OrderPlacedEvent> events) {
+        for (int i = 0; i < events.size(); i++) {
+            try {
+                inventoryService.handleOrderPlaced(events.get(i));
+            } catch (RuntimeException e) {
+                log.error("Replay of orderId={} failed: {}", events.get(i).getOrderId(), e.getMessage(), e);
+                return i;
+            }
+        }
+        return events.size();
+    }
+}
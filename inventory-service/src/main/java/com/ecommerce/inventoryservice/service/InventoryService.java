@@ -1,86 +1,239 @@
 package com.ecommerce.inventoryservice.service;
 
+import com.ecommerce.events.OrderPlacedEvent;
 import com.ecommerce.inventoryservice.dto.InventoryRequest;
 import com.ecommerce.inventoryservice.dto.InventoryResponse;
-import com.ecommerce.inventoryservice.dto.OrderPlacedEvent;
 import com.ecommerce.inventoryservice.entity.Inventory;
+import com.ecommerce.inventoryservice.entity.StockMovement.MovementType;
 import com.ecommerce.inventoryservice.exception.InsufficientStockException;
 import com.ecommerce.inventoryservice.exception.ResourceNotFoundException;
 import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.ProcessedOrderRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
+    private final StockLevelPublisher stockLevelPublisher;
+    private final StockLedger stockLedger;
+    private final ProcessedOrderRepository processedOrderRepository;
+
+    /** Bucket count per product, cached to pick a bucket without an extra query. Only a hint: the locked path re-reads. */
+    private final Map<Long, Integer> bucketCounts = new ConcurrentHashMap<>();
+
+    @Value("${inventory.buckets.default-count:1}")
+    private int defaultBucketCount;
 
     @Transactional
     public InventoryResponse createOrUpdate(InventoryRequest request) {
-        Inventory inv = inventoryRepository.findByProductId(request.getProductId())
-                .orElse(Inventory.builder().productId(request.getProductId()).quantity(0).reserved(0).build());
-        inv.setQuantity(request.getQuantity());
-        inv = inventoryRepository.save(inv);
-        return mapToResponse(inv);
+        Long productId = request.getProductId();
+        List<Inventory> buckets = inventoryRepository.lockByProductId(productId);
+        if (buckets.isEmpty()) {
+            buckets = new ArrayList<>();
+            for (int b = 0; b < Math.max(1, defaultBucketCount); b++) {
+                buckets.add(Inventory.builder().productId(productId).bucket(b).quantity(0).reserved(0).build());
+            }
+        }
+        int quantityDelta = request.getQuantity() - totalQuantity(buckets);
+        spread(buckets, request.getQuantity(), totalReserved(buckets));
+        buckets = inventoryRepository.saveAll(buckets);
+        if (quantityDelta != 0) {
+            stockLedger.record(productId, quantityDelta > 0 ? MovementType.RESTOCK : MovementType.ADJUST, quantityDelta, 0);
+        }
+        bucketCounts.put(productId, buckets.size());
+        stockLevelPublisher.markChanged(productId);
+        return mapToResponse(buckets);
     }
 
     public InventoryResponse getByProductId(Long productId) {
-        Inventory inv = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product: " + productId));
-        return mapToResponse(inv);
+        List<Inventory> buckets = inventoryRepository.findByProductIdOrderByBucket(productId);
+        if (buckets.isEmpty()) {
+            throw new ResourceNotFoundException("Inventory not found for product: " + productId);
+        }
+        return mapToResponse(buckets);
     }
 
     public List<InventoryResponse> getAll() {
-        return inventoryRepository.findAll().stream()
+        Map<Long, List<Inventory>> byProduct = inventoryRepository.findAll().stream()
+                .collect(Collectors.groupingBy(Inventory::getProductId, LinkedHashMap::new, Collectors.toList()));
+        return byProduct.values().stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
     public boolean checkStock(Long productId, int quantity) {
-        return inventoryRepository.findByProductId(productId)
-                .map(inv -> (inv.getQuantity() - inv.getReserved()) >= quantity)
-                .orElse(false);
+        Long available = inventoryRepository.sumAvailableByProductId(productId);
+        return available != null && available >= quantity;
     }
 
+    /**
+     * Reserves from a single bucket, starting at a random one and falling back to its siblings.
+     * Only when no bucket can cover the request on its own are all buckets locked, the reservation
+     * taken from the product total and the buckets evened out again.
+     */
     @Transactional
     public void reserveStock(Long productId, int quantity) {
-        Inventory inv = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product: " + productId));
-        int available = inv.getQuantity() - inv.getReserved();
-        if (available < quantity) {
+        int count = bucketCount(productId);
+        int start = ThreadLocalRandom.current().nextInt(count);
+        for (int i = 0; i < count; i++) {
+            if (inventoryRepository.reserveFromBucket(productId, (start + i) % count, quantity) == 1) {
+                stockLedger.record(productId, MovementType.RESERVE, 0, quantity);
+                stockLevelPublisher.markChanged(productId);
+                return;
+            }
+        }
+
+        List<Inventory> buckets = lockBuckets(productId);
+        int quantityTotal = totalQuantity(buckets);
+        int reservedTotal = totalReserved(buckets);
+        if (quantityTotal - reservedTotal < quantity) {
             throw new InsufficientStockException("Insufficient stock for product " + productId);
         }
-        inv.setReserved(inv.getReserved() + quantity);
-        inventoryRepository.save(inv);
+        spread(buckets, quantityTotal, reservedTotal + quantity);
+        inventoryRepository.saveAll(buckets);
+        stockLedger.record(productId, MovementType.RESERVE, 0, quantity);
+        stockLevelPublisher.markChanged(productId);
     }
 
     @Transactional
     public void releaseStock(Long productId, int quantity) {
-        inventoryRepository.findByProductId(productId).ifPresent(inv -> {
-            inv.setReserved(Math.max(0, inv.getReserved() - quantity));
-            inventoryRepository.save(inv);
-        });
+        Integer count = bucketCounts.get(productId);
+        if (count == null) {
+            count = inventoryRepository.countByProductId(productId);
+            if (count == 0) {
+                return;
+            }
+            bucketCounts.put(productId, count);
+        }
+        int start = ThreadLocalRandom.current().nextInt(count);
+        for (int i = 0; i < count; i++) {
+            if (inventoryRepository.releaseFromBucket(productId, (start + i) % count, quantity) == 1) {
+                stockLedger.record(productId, MovementType.RELEASE, 0, -quantity);
+                stockLevelPublisher.markChanged(productId);
+                return;
+            }
+        }
+
+        List<Inventory> buckets = inventoryRepository.lockByProductId(productId);
+        if (buckets.isEmpty()) {
+            return;
+        }
+        int reservedTotal = totalReserved(buckets);
+        int released = Math.min(quantity, reservedTotal);
+        spread(buckets, totalQuantity(buckets), reservedTotal - released);
+        inventoryRepository.saveAll(buckets);
+        if (released > 0) {
+            stockLedger.record(productId, MovementType.RELEASE, 0, -released);
+        }
+        stockLevelPublisher.markChanged(productId);
+    }
+
+    /** Changes the number of buckets a product's stock is split across and redistributes its stock evenly. */
+    @Transactional
+    public InventoryResponse rebalance(Long productId, int bucketCount) {
+        List<Inventory> buckets = new ArrayList<>(lockBuckets(productId));
+        int quantityTotal = totalQuantity(buckets);
+        int reservedTotal = totalReserved(buckets);
+        while (buckets.size() < bucketCount) {
+            buckets.add(Inventory.builder().productId(productId).bucket(buckets.size()).build());
+        }
+        if (buckets.size() > bucketCount) {
+            List<Inventory> removed = buckets.subList(bucketCount, buckets.size());
+            inventoryRepository.deleteAll(removed);
+            removed.clear();
+        }
+        spread(buckets, quantityTotal, reservedTotal);
+        buckets = inventoryRepository.saveAll(buckets);
+        bucketCounts.put(productId, bucketCount);
+        return mapToResponse(buckets);
     }
 
+    /**
+     * Reserves the order's stock once: the order is recorded in the same transaction, so a redelivered or
+     * replayed event is skipped, and a failed one leaves no record and can be retried.
+     */
     @Transactional
     public void handleOrderPlaced(OrderPlacedEvent event) {
+        if (processedOrderRepository.markProcessed(event.getOrderId()) == 0) {
+            log.info("Stock for orderId={} already reserved, skipped duplicate event", event.getOrderId());
+            return;
+        }
         for (OrderPlacedEvent.OrderItemDto item : event.getItems()) {
             reserveStock(item.getProductId(), item.getQuantity());
         }
     }
 
-    private InventoryResponse mapToResponse(Inventory inv) {
+    private int bucketCount(Long productId) {
+        Integer count = bucketCounts.get(productId);
+        if (count != null) {
+            return count;
+        }
+        count = inventoryRepository.countByProductId(productId);
+        if (count == 0) {
+            throw new ResourceNotFoundException("Inventory not found for product: " + productId);
+        }
+        bucketCounts.put(productId, count);
+        return count;
+    }
+
+    private List<Inventory> lockBuckets(Long productId) {
+        List<Inventory> buckets = inventoryRepository.lockByProductId(productId);
+        if (buckets.isEmpty()) {
+            throw new ResourceNotFoundException("Inventory not found for product: " + productId);
+        }
+        bucketCounts.put(productId, buckets.size());
+        return buckets;
+    }
+
+    /** Splits the product totals evenly over its buckets, keeping every bucket's own quantity >= reserved. */
+    private static void spread(List<Inventory> buckets, int quantity, int reserved) {
+        int n = buckets.size();
+        int available = quantity - reserved;
+        for (int i = 0; i < n; i++) {
+            int bucketReserved = share(reserved, n, i);
+            Inventory bucket = buckets.get(i);
+            bucket.setReserved(bucketReserved);
+            bucket.setQuantity(bucketReserved + share(available, n, i));
+        }
+    }
+
+    private static int share(int total, int n, int index) {
+        return Math.floorDiv(total, n) + (index < Math.floorMod(total, n) ? 1 : 0);
+    }
+
+    private static int totalQuantity(List<Inventory> buckets) {
+        return buckets.stream().mapToInt(Inventory::getQuantity).sum();
+    }
+
+    private static int totalReserved(List<Inventory> buckets) {
+        return buckets.stream().mapToInt(Inventory::getReserved).sum();
+    }
+
+    private InventoryResponse mapToResponse(List<Inventory> buckets) {
+        int quantity = totalQuantity(buckets);
+        int reserved = totalReserved(buckets);
         return InventoryResponse.builder()
-                .id(inv.getId())
-                .productId(inv.getProductId())
-                .quantity(inv.getQuantity())
-                .reserved(inv.getReserved())
-                .available(inv.getQuantity() - inv.getReserved())
+                .id(buckets.get(0).getId())
+                .productId(buckets.get(0).getProductId())
+                .quantity(quantity)
+                .reserved(reserved)
+                .available(quantity - reserved)
+                .buckets(buckets.size())
                 .build();
     }
 }
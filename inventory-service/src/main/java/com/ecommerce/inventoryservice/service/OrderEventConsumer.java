@@ -1,31 +1,37 @@
 package com.ecommerce.inventoryservice.service;
 
-import com.ecommerce.inventoryservice.dto.OrderPlacedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.events.OrderPlacedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exceptions are not caught here: a failure sends the record through the retry topics and finally to
+ * the dead-letter topic (see {@link com.ecommerce.inventoryservice.config.KafkaRetryConfig}).
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OrderEventConsumer {
 
     private final InventoryService inventoryService;
-    private final ObjectMapper objectMapper;
 
     @KafkaListener(topics = "order-placed", groupId = "inventory-service")
-    public void consumeOrderPlaced(String message) {
-        try {
-            OrderPlacedEvent event = objectMapper.readValue(message, OrderPlacedEvent.class);
-            log.info("Received OrderPlacedEvent: orderId={}", event.getOrderId());
-            inventoryService.handleOrderPlaced(event);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse OrderPlacedEvent: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("Error processing OrderPlacedEvent: {}", e.getMessage());
-        }
+    public void consumeOrderPlaced(OrderPlacedEvent event) {
+        log.info("Received OrderPlacedEvent: orderId={}", event.getOrderId());
+        inventoryService.handleOrderPlaced(event);
+    }
+
+    public void handleDeadLetter(ConsumerRecord<String, OrderPlacedEvent> record) {
+        Header error = record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        log.error("OrderPlacedEvent moved to {} (offset {}): orderId={}, error={}", record.topic(), record.offset(),
+                record.value() != null ? record.value().getOrderId() : null,
+                error != null ? new String(error.value(), StandardCharsets.UTF_8) : "unknown");
     }
 }
@@ -0,0 +1,100 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.dto.LedgerLevelResponse;
+import com.ecommerce.inventoryservice.entity.Inventory;
+import com.ecommerce.inventoryservice.entity.StockMovement;
+import com.ecommerce.inventoryservice.entity.StockMovement.MovementType;
+import com.ecommerce.inventoryservice.entity.StockSnapshot;
+import com.ecommerce.inventoryservice.exception.ResourceNotFoundException;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.StockMovementRepository;
+import com.ecommerce.inventoryservice.repository.StockSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only stock movement ledger. Movements recorded inside a transaction are buffered and written
+ * as one batched insert just before it commits, so an order touching many SKUs costs a single round trip.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockLedger {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final InventoryRepository inventoryRepository;
+
+    public void record(Long productId, MovementType type, int quantityDelta, int reservedDelta) {
+        StockMovement movement = StockMovement.builder()
+                .productId(productId)
+                .type(type)
+                .quantityDelta(quantityDelta)
+                .reservedDelta(reservedDelta)
+                .createdAt(LocalDateTime.now())
+                .build();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            stockMovementRepository.save(movement);
+            return;
+        }
+        pendingMovements().add(movement);
+    }
+
+    /** Current level from the latest snapshot plus the movements recorded after it, compared to the inventory rows. */
+    public LedgerLevelResponse levelOf(Long productId) {
+        List<Inventory> buckets = inventoryRepository.findByProductIdOrderByBucket(productId);
+        if (buckets.isEmpty()) {
+            throw new ResourceNotFoundException("Inventory not found for product: " + productId);
+        }
+        StockSnapshot snapshot = stockSnapshotRepository.findById(productId).orElse(null);
+        List<StockMovement> tail = snapshot != null
+                ? stockMovementRepository.findByProductIdAndCreatedAtGreaterThanEqualOrderById(productId, snapshot.getAsOf())
+                : stockMovementRepository.findByProductIdOrderById(productId);
+        int quantity = snapshot != null ? snapshot.getQuantity() : 0;
+        int reserved = snapshot != null ? snapshot.getReserved() : 0;
+        for (StockMovement movement : tail) {
+            quantity += movement.getQuantityDelta();
+            reserved += movement.getReservedDelta();
+        }
+        int inventoryQuantity = buckets.stream().mapToInt(Inventory::getQuantity).sum();
+        int inventoryReserved = buckets.stream().mapToInt(Inventory::getReserved).sum();
+        return LedgerLevelResponse.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .reserved(reserved)
+                .snapshotAsOf(snapshot != null ? snapshot.getAsOf() : null)
+                .tailMovements(tail.size())
+                .inventoryQuantity(inventoryQuantity)
+                .inventoryReserved(inventoryReserved)
+                .drift(quantity != inventoryQuantity || reserved != inventoryReserved)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<StockMovement> pendingMovements() {
+        List<StockMovement> pending = (List<StockMovement>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        List<StockMovement> batch = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, batch);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                stockMovementRepository.saveAll(batch);
+                stockMovementRepository.flush();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(StockLedger.this);
+            }
+        });
+        return batch;
+    }
+}
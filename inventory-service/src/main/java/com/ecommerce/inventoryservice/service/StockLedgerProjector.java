@@ -0,0 +1,94 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.entity.Inventory;
+import com.ecommerce.inventoryservice.entity.StockSnapshot;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.StockMovementRepository;
+import com.ecommerce.inventoryservice.repository.StockSnapshotRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Folds the stock movement ledger into per-product snapshots in the background, so recovering a level
+ * only replays the movements after its snapshot.
+ * <p>
+ * Movements are folded by creation time up to a watermark trailing the clock by {@code projection-lag-ms},
+ * which must exceed the longest inventory transaction (and clock skew between instances): a movement is
+ * only folded once nothing older can still commit. A run holds an advisory lock for its transaction, so
+ * instances take turns and each window [latest snapshot, watermark) is folded exactly once.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockLedgerProjector {
+
+    private final StockMovementRepository stockMovementRepository;
+    private final StockSnapshotRepository stockSnapshotRepository;
+    private final InventoryRepository inventoryRepository;
+
+    @Value("${inventory.ledger.projection-lag-ms:10000}")
+    private long projectionLagMs;
+
+    @Scheduled(fixedDelayString = "${inventory.ledger.snapshot-interval-ms:60000}")
+    @Transactional
+    public void project() {
+        if (!stockSnapshotRepository.tryLockProjection()) {
+            log.debug("Stock projection already running on another instance");
+            return;
+        }
+        // Read after the lock: a run that just committed has moved the latest snapshot on.
+        LocalDateTime watermark = LocalDateTime.now().minusNanos(projectionLagMs * 1_000_000);
+        Optional<LocalDateTime> latest = stockSnapshotRepository.findLatestAsOf();
+        if (latest.isEmpty()) {
+            seedFromInventory(LocalDateTime.now());
+            return;
+        }
+        LocalDateTime from = latest.get();
+        if (!watermark.isAfter(from)) {
+            return;
+        }
+
+        List<Object[]> deltas = stockMovementRepository.sumDeltasByProduct(from, watermark);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Long> productIds = deltas.stream().map(row -> (Long) row[0]).collect(Collectors.toList());
+        Map<Long, StockSnapshot> snapshots = new HashMap<>(stockSnapshotRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(StockSnapshot::getProductId, Function.identity())));
+        for (Object[] row : deltas) {
+            Long productId = (Long) row[0];
+            StockSnapshot snapshot = snapshots.computeIfAbsent(productId,
+                    id -> StockSnapshot.builder().productId(id).build());
+            snapshot.setQuantity(snapshot.getQuantity() + ((Number) row[1]).intValue());
+            snapshot.setReserved(snapshot.getReserved() + ((Number) row[2]).intValue());
+            snapshot.setAsOf(watermark);
+        }
+        stockSnapshotRepository.saveAll(snapshots.values());
+        log.debug("Projected stock movements up to {} into {} snapshots", watermark, snapshots.size());
+    }
+
+    /** Ledger introduced on an existing database: start from the current inventory rows as baseline. */
+    private void seedFromInventory(LocalDateTime asOf) {
+        Map<Long, StockSnapshot> snapshots = new HashMap<>();
+        for (Inventory inv : inventoryRepository.findAll()) {
+            StockSnapshot snapshot = snapshots.computeIfAbsent(inv.getProductId(),
+                    id -> StockSnapshot.builder().productId(id).asOf(asOf).build());
+            snapshot.setQuantity(snapshot.getQuantity() + inv.getQuantity());
+            snapshot.setReserved(snapshot.getReserved() + inv.getReserved());
+        }
+        stockSnapshotRepository.saveAll(snapshots.values());
+        log.info("Seeded {} stock snapshots from inventory as of {}", snapshots.size(), asOf);
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.dto.StockLevelChangedEvent;
+import com.ecommerce.inventoryservice.entity.Inventory;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes availability changes to the stock-level feed. Changes are coalesced per product:
+ * a SKU touched many times within one flush interval emits a single event carrying its latest level.
+ * A product whose event could not be sent is marked again, so it is published by a later flush.
+ */
+@Slf4j
+@Component
+public class StockLevelPublisher {
+
+    private final InventoryRepository inventoryRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final String topic;
+    private final int lowStockThreshold;
+    private final Set<Long> changedProductIds = ConcurrentHashMap.newKeySet();
+
+    public StockLevelPublisher(InventoryRepository inventoryRepository,
+                               KafkaTemplate<String, String> kafkaTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${inventory.stock-feed.topic:stock-level-changed}") String topic,
+                               @Value("${inventory.stock-feed.low-stock-threshold:10}") int lowStockThreshold) {
+        this.inventoryRepository = inventoryRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.topic = topic;
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    /** Marks a product as changed. Inside a transaction the mark is only recorded once it commits. */
+    public void markChanged(Long productId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    changedProductIds.add(productId);
+                }
+            });
+        } else {
+            changedProductIds.add(productId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-feed.interval-ms:1000}")
+    public void flush() {
+        if (changedProductIds.isEmpty()) {
+            return;
+        }
+        // Unmark before reading so a change committed during the flush is picked up by the next one.
+        List<Long> productIds = new ArrayList<>(changedProductIds);
+        changedProductIds.removeAll(productIds);
+
+        Map<Long, Integer> availableByProduct = inventoryRepository.findByProductIdIn(productIds).stream()
+                .collect(Collectors.groupingBy(Inventory::getProductId,
+                        Collectors.summingInt(inv -> inv.getQuantity() - inv.getReserved())));
+        Instant now = Instant.now();
+        availableByProduct.forEach((productId, available) -> {
+            StockLevelChangedEvent event = StockLevelChangedEvent.builder()
+                    .productId(productId)
+                    .available(available)
+                    .lowStock(available <= lowStockThreshold)
+                    .timestamp(now)
+                    .build();
+            String message;
+            try {
+                message = objectMapper.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                log.error("Failed to publish StockLevelChangedEvent for productId={}: {}", productId, e.getMessage());
+                return;
+            }
+            kafkaTemplate.send(topic, String.valueOf(productId), message)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            // Re-mark so the next flush publishes the then-current level instead of losing the change.
+                            log.warn("Failed to publish StockLevelChangedEvent for productId={}, retrying on the next flush: {}",
+                                    productId, ex.getMessage());
+                            changedProductIds.add(productId);
+                        }
+                    });
+        });
+        log.debug("Published {} coalesced stock level changes", productIds.size());
+    }
+}
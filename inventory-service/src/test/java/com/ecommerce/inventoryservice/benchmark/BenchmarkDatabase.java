@@ -0,0 +1,62 @@
+package com.ecommerce.inventoryservice.benchmark;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Throwaway PostgreSQL for the write benchmarks, started with Testcontainers (needs Docker), holding the
+ * inventory and stock_movements tables as the entities map them.
+ */
+final class BenchmarkDatabase implements AutoCloseable {
+
+    private static final String[] SCHEMA = {
+            "CREATE TABLE inventory (id bigserial PRIMARY KEY, product_id bigint NOT NULL, " +
+                    "bucket integer NOT NULL DEFAULT 0, quantity integer NOT NULL, reserved integer NOT NULL, " +
+                    "UNIQUE (product_id, bucket))",
+            "CREATE SEQUENCE stock_movements_seq",
+            "CREATE TABLE stock_movements (id bigint PRIMARY KEY, product_id bigint NOT NULL, " +
+                    "type varchar(16) NOT NULL, quantity_delta integer NOT NULL, reserved_delta integer NOT NULL, " +
+                    "created_at timestamp(6) NOT NULL)",
+            "CREATE INDEX idx_stock_movements_created_at ON stock_movements (created_at)",
+            "CREATE INDEX idx_stock_movements_product_created_at ON stock_movements (product_id, created_at)"
+    };
+
+    final JdbcTemplate jdbc;
+    final TransactionTemplate tx;
+
+    private final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:16.2-alpine");
+    private final HikariDataSource dataSource;
+
+    BenchmarkDatabase(int connections) {
+        container.start();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(container.getJdbcUrl());
+        config.setUsername(container.getUsername());
+        config.setPassword(container.getPassword());
+        config.setMaximumPoolSize(connections);
+        dataSource = new HikariDataSource(config);
+        jdbc = new JdbcTemplate(dataSource);
+        tx = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        for (String statement : SCHEMA) {
+            jdbc.execute(statement);
+        }
+    }
+
+    /** Stocks {@code productId} across {@code buckets} rows with more than any run can reserve. */
+    void stock(long productId, int buckets) {
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            jdbc.update("INSERT INTO inventory (product_id, bucket, quantity, reserved) VALUES (?, ?, ?, 0)",
+                    productId, bucket, Integer.MAX_VALUE);
+        }
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+        container.stop();
+    }
+}
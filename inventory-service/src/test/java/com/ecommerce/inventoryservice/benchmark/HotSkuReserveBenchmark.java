@@ -0,0 +1,72 @@
+package com.ecommerce.inventoryservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservations of one hot SKU by concurrent reservers, using the statements of
+ * {@code InventoryService.reserveStock}: a conditional update of one bucket, starting at a random one and falling
+ * back to its siblings, each reservation in its own transaction. With one bucket every reserver queues on the same
+ * row lock; with more, up to that many commit in parallel.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="HotSkuReserveBenchmark -t 32"} (reservers = JMH threads; needs Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(16)
+public class HotSkuReserveBenchmark {
+
+    static final String RESERVE_FROM_BUCKET = "UPDATE inventory SET reserved = reserved + ? " +
+            "WHERE product_id = ? AND bucket = ? AND quantity - reserved >= ?";
+
+    private static final long PRODUCT_ID = 1;
+
+    @Param({"1", "4", "16"})
+    public int buckets;
+
+    private BenchmarkDatabase db;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        db = new BenchmarkDatabase(params.getThreads());
+        db.stock(PRODUCT_ID, buckets);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public Boolean reserve() {
+        return db.tx.execute(status -> {
+            int start = ThreadLocalRandom.current().nextInt(buckets);
+            for (int i = 0; i < buckets; i++) {
+                if (db.jdbc.update(RESERVE_FROM_BUCKET, 1, PRODUCT_ID, (start + i) % buckets, 1) == 1) {
+                    return true;
+                }
+            }
+            return false;
+        });
+    }
+}
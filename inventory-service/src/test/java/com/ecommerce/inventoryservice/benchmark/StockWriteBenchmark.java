@@ -0,0 +1,90 @@
+package com.ecommerce.inventoryservice.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stock writes/sec on one hot SKU from concurrent writers, one transaction per write, for the three designs:
+ * the original single row updated in place, the row split into {@value #BUCKETS} buckets, and an append-only
+ * insert into the stock movement ledger with no row update. {@code bucketedWithLedger} is what
+ * {@code reserveStock} does now, a bucket update plus its movement.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="StockWriteBenchmark -t 32"} (writers = JMH threads; needs Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@Threads(16)
+public class StockWriteBenchmark {
+
+    private static final int BUCKETS = 16;
+    private static final long SINGLE_ROW_PRODUCT = 1;
+    private static final long BUCKETED_PRODUCT = 2;
+    private static final String APPEND_MOVEMENT = "INSERT INTO stock_movements " +
+            "(id, product_id, type, quantity_delta, reserved_delta, created_at) " +
+            "VALUES (nextval('stock_movements_seq'), ?, 'RESERVE', 0, 1, ?)";
+
+    private BenchmarkDatabase db;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) {
+        db = new BenchmarkDatabase(params.getThreads());
+        db.stock(SINGLE_ROW_PRODUCT, 1);
+        db.stock(BUCKETED_PRODUCT, BUCKETS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        db.close();
+    }
+
+    @Benchmark
+    public Integer inPlaceUpdate() {
+        return db.tx.execute(status -> db.jdbc.update(HotSkuReserveBenchmark.RESERVE_FROM_BUCKET,
+                1, SINGLE_ROW_PRODUCT, 0, 1));
+    }
+
+    @Benchmark
+    public Integer bucketedUpdate() {
+        return db.tx.execute(status -> reserveFromRandomBucket());
+    }
+
+    @Benchmark
+    public Integer ledgerAppend() {
+        return db.tx.execute(status -> appendMovement());
+    }
+
+    @Benchmark
+    public Integer bucketedWithLedger() {
+        return db.tx.execute(status -> reserveFromRandomBucket() + appendMovement());
+    }
+
+    private int reserveFromRandomBucket() {
+        return db.jdbc.update(HotSkuReserveBenchmark.RESERVE_FROM_BUCKET,
+                1, BUCKETED_PRODUCT, ThreadLocalRandom.current().nextInt(BUCKETS), 1);
+    }
+
+    private int appendMovement() {
+        return db.jdbc.update(APPEND_MOVEMENT, BUCKETED_PRODUCT, Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
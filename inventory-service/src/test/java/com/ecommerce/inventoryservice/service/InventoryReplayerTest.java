@@ -0,0 +1,64 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.ProcessedOrderRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/** Replaying orders the database already holds, e.g. rerunning after a failure, reserves nothing twice. */
+class InventoryReplayerTest {
+
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final ProcessedOrderRepository processedOrderRepository = mock(ProcessedOrderRepository.class);
+    /** Stands in for the processed_orders table. */
+    private final Set<Long> processed = new HashSet<>();
+    private InventoryReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        when(inventoryRepository.countByProductId(anyLong())).thenReturn(1);
+        when(inventoryRepository.reserveFromBucket(anyLong(), anyInt(), anyInt())).thenReturn(1);
+        when(processedOrderRepository.markProcessed(anyLong()))
+                .thenAnswer(inv -> processed.add(inv.<Long>getArgument(0)) ? 1 : 0);
+        InventoryService inventoryService = new InventoryService(inventoryRepository, mock(StockLevelPublisher.class),
+                mock(StockLedger.class), processedOrderRepository);
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        when(context.getEnvironment()).thenReturn(new MockEnvironment());
+        replayer = new InventoryReplayer(new KafkaProperties(), context, inventoryService);
+    }
+
+    @Test
+    void rerunSkipsOrdersAlreadyApplied() {
+        assertThat(replayer.apply(List.of(order(1, 101), order(2, 102)))).isEqualTo(2);
+
+        assertThat(replayer.apply(List.of(order(1, 101), order(2, 102), order(3, 103)))).isEqualTo(3);
+
+        verify(inventoryRepository, times(1)).reserveFromBucket(eq(101L), anyInt(), eq(2));
+        verify(inventoryRepository, times(1)).reserveFromBucket(eq(102L), anyInt(), eq(2));
+        verify(inventoryRepository, times(1)).reserveFromBucket(eq(103L), anyInt(), eq(2));
+    }
+
+    private static OrderPlacedEvent order(long orderId, long productId) {
+        return OrderPlacedEvent.builder()
+                .orderId(orderId)
+                .items(List.of(OrderPlacedEvent.OrderItemDto.builder().productId(productId).quantity(2).build()))
+                .build();
+    }
+}
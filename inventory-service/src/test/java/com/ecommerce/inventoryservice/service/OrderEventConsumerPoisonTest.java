@@ -0,0 +1,174 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.events.serde.OrderPlacedEventSerializer;
+import com.ecommerce.inventoryservice.config.KafkaRetryConfig;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.kafka.KafkaAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * A partition carrying a few records that always fail, plus one that cannot be deserialized, must move as fast
+ * as a clean one: the good records take no longer than the same number of records on a clean run, all of them
+ * are processed before the first retry of a failed record is due, the main topic's committed offset reaches
+ * its end, and the bad records end up in the dead-letter topic.
+ */
+@SpringBootTest(classes = {KafkaRetryConfig.class, OrderEventConsumer.class}, properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.auto-offset-reset=earliest",
+        "inventory.retry.attempts=3",
+        "inventory.retry.initial-interval-ms=5000",
+        "inventory.retry.multiplier=1.2",
+        "logging.level.com.ecommerce=WARN"})
+@ImportAutoConfiguration(KafkaAutoConfiguration.class)
+@EmbeddedKafka(partitions = 1, topics = KafkaRetryConfig.ORDER_PLACED_TOPIC)
+class OrderEventConsumerPoisonTest {
+
+    private static final int EVENTS = 2_000;
+    private static final long CLEAN_RUN_FIRST_ID = 1;
+    private static final long POISONED_RUN_FIRST_ID = 100_001;
+    private static final Set<Long> POISON = Set.of(100_100L, 100_600L, 101_100L, 101_600L, 101_900L);
+    private static final long RETRY_DELAY_MS = 5_000;
+
+    @Autowired
+    private EmbeddedKafkaBroker broker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+
+    @MockBean
+    private InventoryService inventoryService;
+
+    private final Map<Long, Long> processedAt = new ConcurrentHashMap<>();
+    private final Queue<Long> retriedAt = new ConcurrentLinkedQueue<>();
+    private final Set<Long> failed = ConcurrentHashMap.newKeySet();
+
+    @Test
+    void poisonRecordsDoNotSlowThePartition() {
+        doAnswer(inv -> {
+            OrderPlacedEvent event = inv.getArgument(0);
+            if (POISON.contains(event.getOrderId())) {
+                if (!failed.add(event.getOrderId())) {
+                    retriedAt.add(System.nanoTime());
+                }
+                throw new IllegalStateException("poison " + event.getOrderId());
+            }
+            processedAt.put(event.getOrderId(), System.nanoTime());
+            return null;
+        }).when(inventoryService).handleOrderPlaced(any());
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (List.of(container.getContainerProperties().getTopics()).contains(KafkaRetryConfig.ORDER_PLACED_TOPIC)) {
+                ContainerTestUtils.waitForAssignment(container, 1);
+            }
+        }
+
+        try (Producer<String, byte[]> producer = new KafkaProducer<>(producerProps())) {
+            long cleanMs = run(producer, CLEAN_RUN_FIRST_ID, EVENTS);
+            long poisonedMs = run(producer, POISONED_RUN_FIRST_ID, EVENTS - POISON.size());
+            long lastProcessed = processedAt.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+            System.out.printf("%d records: %d ms clean, %d ms with %d poison records%n",
+                    EVENTS, cleanMs, poisonedMs, POISON.size() + 1);
+
+            assertThat(poisonedMs).isLessThan(Math.max(2 * cleanMs, cleanMs + 500));
+            assertThat(poisonedMs).isLessThan(RETRY_DELAY_MS);
+            assertThat(retriedAt).allMatch(retry -> retry > lastProcessed);
+        }
+
+        await().atMost(Duration.ofSeconds(30)).until(() -> committedOffset() == 2L * EVENTS + 1);
+        assertThat(readDeadLetters(POISON.size() + 1)).hasSize(POISON.size() + 1);
+        assertThat(retriedAt).hasSize(POISON.size() * 2);
+    }
+
+    /** Sends {@link #EVENTS} events and returns the ms from sending the first until {@code expected} are processed. */
+    private long run(Producer<String, byte[]> producer, long firstOrderId, int expected) {
+        OrderPlacedEventSerializer serializer = new OrderPlacedEventSerializer();
+        int before = processedAt.size();
+        long start = System.nanoTime();
+        for (long orderId = firstOrderId; orderId < firstOrderId + EVENTS; orderId++) {
+            if (firstOrderId == POISONED_RUN_FIRST_ID && orderId == firstOrderId + EVENTS / 2) {
+                producer.send(new ProducerRecord<>(KafkaRetryConfig.ORDER_PLACED_TOPIC, "garbage",
+                        "not an event".getBytes(StandardCharsets.UTF_8)));
+            }
+            OrderPlacedEvent event = OrderPlacedEvent.builder()
+                    .orderId(orderId)
+                    .userId(orderId % 50)
+                    .totalAmount(10.0)
+                    .items(List.of())
+                    .build();
+            producer.send(new ProducerRecord<>(KafkaRetryConfig.ORDER_PLACED_TOPIC, String.valueOf(orderId),
+                    serializer.serialize(KafkaRetryConfig.ORDER_PLACED_TOPIC, event)));
+        }
+        producer.flush();
+        await().atMost(Duration.ofSeconds(30)).until(() -> processedAt.size() - before == expected);
+        long last = processedAt.values().stream().mapToLong(Long::longValue).max().orElseThrow();
+        return (last - start) / 1_000_000;
+    }
+
+    private long committedOffset() throws Exception {
+        var offset = KafkaTestUtils.getCurrentOffset(broker.getBrokersAsString(), "inventory-service",
+                KafkaRetryConfig.ORDER_PLACED_TOPIC, 0);
+        return offset != null ? offset.offset() : -1;
+    }
+
+    private Map<String, Object> producerProps() {
+        Map<String, Object> props = KafkaTestUtils.producerProps(broker);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return props;
+    }
+
+    /** Keys of the records in the dead-letter topic, once {@code expected} have arrived (or 30 seconds passed). */
+    private List<String> readDeadLetters(int expected) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("dlt-reader", "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        List<String> keys = new ArrayList<>();
+        try (Consumer<String, byte[]> consumer = new KafkaConsumer<>(props)) {
+            consumer.subscribe(List.of(KafkaRetryConfig.ORDER_PLACED_TOPIC + KafkaRetryConfig.DLT_SUFFIX));
+            long deadline = System.currentTimeMillis() + 30_000;
+            while (keys.size() < expected && System.currentTimeMillis() < deadline) {
+                for (ConsumerRecord<String, byte[]> record : consumer.poll(Duration.ofMillis(500))) {
+                    keys.add(record.key());
+                }
+            }
+        }
+        return keys;
+    }
+}
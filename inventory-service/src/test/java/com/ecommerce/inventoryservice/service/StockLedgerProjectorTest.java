@@ -0,0 +1,33 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.ecommerce.inventoryservice.repository.StockMovementRepository;
+import com.ecommerce.inventoryservice.repository.StockSnapshotRepository;
+import org.junit.jupiter.api.Test;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/** Only the instance holding the projection lock folds the ledger. */
+class StockLedgerProjectorTest {
+
+    private final StockMovementRepository stockMovementRepository = mock(StockMovementRepository.class);
+    private final StockSnapshotRepository stockSnapshotRepository = mock(StockSnapshotRepository.class);
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    private final StockLedgerProjector projector =
+            new StockLedgerProjector(stockMovementRepository, stockSnapshotRepository, inventoryRepository);
+
+    @Test
+    void skipsTheRunWhileAnotherInstanceHoldsTheLock() {
+        when(stockSnapshotRepository.tryLockProjection()).thenReturn(false);
+
+        projector.project();
+
+        verify(stockSnapshotRepository).tryLockProjection();
+        verifyNoMoreInteractions(stockSnapshotRepository);
+        verifyNoInteractions(stockMovementRepository, inventoryRepository);
+    }
+}
@@ -0,0 +1,46 @@
+package com.ecommerce.inventoryservice.service;
+
+import com.ecommerce.inventoryservice.entity.Inventory;
+import com.ecommerce.inventoryservice.repository.InventoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.apache.kafka.common.errors.TimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StockLevelPublisherTest {
+
+    private final InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    private final StockLevelPublisher publisher = new StockLevelPublisher(inventoryRepository, kafkaTemplate,
+            new ObjectMapper().registerModule(new JavaTimeModule()), "stock-level-changed", 10);
+
+    @Test
+    void productWhoseSendFailedIsPublishedByTheNextFlush() {
+        when(inventoryRepository.findByProductIdIn(anyList())).thenReturn(List.of(
+                Inventory.builder().productId(7L).quantity(50).reserved(5).build()));
+        when(kafkaTemplate.send(eq("stock-level-changed"), eq("7"), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new TimeoutException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+
+        publisher.markChanged(7L);
+        publisher.flush();
+        publisher.flush();
+        publisher.flush();
+
+        verify(kafkaTemplate, times(2)).send(eq("stock-level-changed"), eq("7"), anyString());
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.kafka;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeadLetterReplayResponse {
+
+    private String fromTopic;
+    private String toTopic;
+    private int replayed;
+}
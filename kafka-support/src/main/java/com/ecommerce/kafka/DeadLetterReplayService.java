@@ -0,0 +1,161 @@
+package com.ecommerce.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Pushes a consumer's dead-lettered records back for another try. Records are copied byte-for-byte to its first
+ * retry topic (not to the main topic, which other services also consume) with the retry and DLT headers stripped,
+ * so they start a fresh round of attempts. DLT offsets are committed only after the copies have been
+ * acknowledged, so a crash mid-replay can duplicate but never lose a record. A copy that fails aborts the replay,
+ * with offsets committed up to the last record acknowledged before it.
+ * <p>
+ * Created for a consumer by {@link OrderPlacedRetryConfigSupport#deadLetterReplayService}.
+ */
+@Slf4j
+public class DeadLetterReplayService {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(2);
+
+    private final KafkaProperties kafkaProperties;
+    private final String dltTopic;
+    private final String targetTopic;
+    private final String replayGroup;
+
+    public DeadLetterReplayService(KafkaProperties kafkaProperties, String dltTopic, String targetTopic,
+                                   String replayGroup) {
+        this.kafkaProperties = kafkaProperties;
+        this.dltTopic = dltTopic;
+        this.targetTopic = targetTopic;
+        this.replayGroup = replayGroup;
+    }
+
+    /** Replays up to {@code limit} (positive) records, oldest first. Returns how many were replayed. */
+    public synchronized DeadLetterReplayResponse replay(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("limit must be positive");
+        }
+        int replayed = 0;
+        try (Consumer<byte[], byte[]> consumer = createConsumer(consumerProps(limit));
+             Producer<byte[], byte[]> producer = createProducer(producerProps())) {
+            List<PartitionInfo> partitions = consumer.partitionsFor(dltTopic);
+            if (partitions == null || partitions.isEmpty()) {
+                return DeadLetterReplayResponse.builder().fromTopic(dltTopic).toTopic(targetTopic).replayed(0).build();
+            }
+            // assign() rather than subscribe(): no group rebalance to wait for, positions resume from the committed offsets.
+            consumer.assign(partitions.stream().map(p -> new TopicPartition(p.topic(), p.partition())).toList());
+            while (replayed < limit) {
+                ConsumerRecords<byte[], byte[]> records = consumer.poll(POLL_TIMEOUT);
+                if (records.isEmpty()) {
+                    break;
+                }
+                Map<ConsumerRecord<byte[], byte[]>, Future<RecordMetadata>> copies = new LinkedHashMap<>();
+                for (ConsumerRecord<byte[], byte[]> record : records) {
+                    if (replayed + copies.size() == limit) {
+                        break;
+                    }
+                    copies.put(record, producer.send(
+                            new ProducerRecord<>(targetTopic, null, record.key(), record.value(), replayHeaders(record))));
+                }
+                producer.flush();
+                replayed += commitAcknowledged(consumer, copies);
+            }
+        }
+        log.info("Replayed {} records from {} to {}", replayed, dltTopic, targetTopic);
+        return DeadLetterReplayResponse.builder().fromTopic(dltTopic).toTopic(targetTopic).replayed(replayed).build();
+    }
+
+    /**
+     * Commits the DLT offsets of the copies acknowledged before the first failed one, and throws if any failed, so
+     * a record is never committed unless it (and everything before it) reached the target topic.
+     */
+    private int commitAcknowledged(Consumer<byte[], byte[]> consumer,
+                                   Map<ConsumerRecord<byte[], byte[]>, Future<RecordMetadata>> copies) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        int acknowledged = 0;
+        try {
+            for (Map.Entry<ConsumerRecord<byte[], byte[]>, Future<RecordMetadata>> copy : copies.entrySet()) {
+                copy.getValue().get();
+                ConsumerRecord<byte[], byte[]> record = copy.getKey();
+                offsets.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+                acknowledged++;
+            }
+        } catch (ExecutionException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            if (!offsets.isEmpty()) {
+                consumer.commitSync(offsets);
+            }
+            throw new IllegalStateException("Replay from " + dltTopic + " aborted: a copy to " + targetTopic
+                    + " was not acknowledged; offsets are committed up to the last acknowledged record",
+                    e instanceof ExecutionException ? e.getCause() : e);
+        }
+        consumer.commitSync(offsets);
+        return acknowledged;
+    }
+
+    /** The consumer to read the DLT with; tests substitute a mock. */
+    protected Consumer<byte[], byte[]> createConsumer(Map<String, Object> props) {
+        return new KafkaConsumer<>(props);
+    }
+
+    /** The producer to copy records with; tests substitute a mock. */
+    protected Producer<byte[], byte[]> createProducer(Map<String, Object> props) {
+        return new KafkaProducer<>(props);
+    }
+
+    private static List<Header> replayHeaders(ConsumerRecord<?, ?> record) {
+        List<Header> headers = new ArrayList<>();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("kafka_dlt-") && !header.key().startsWith("retry_topic-")) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private Map<String, Object> consumerProps(int limit) {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, replayGroup);
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.min(limit, 500));
+        return props;
+    }
+
+    private Map<String, Object> producerProps() {
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        return props;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ecommerce.kafka;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.kafka.listener.BatchInterceptor;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.listener.KafkaBackoffException;
+import org.springframework.kafka.listener.RecordInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listener metrics for every @KafkaListener container (Boot applies the interceptor and rebalance listener to the
+ * default container factory, so the retry-topic containers are covered too):
+ * <ul>
+ *   <li>{@code kafka.listener.record} - per-record processing time histogram, tagged by group, topic, result and
+ *       exception; its count gives records/sec and error rates. A listener that returns before its record is
+ *       processed hands the completion to {@link #timeUntil} so the record is timed until then</li>
+ *   <li>{@code kafka.listener.rebalances} - partitions assigned / revoked / lost, tagged by group</li>
+ *   <li>{@code kafka.listener.assigned.partitions} - partitions currently owned per group</li>
+ * </ul>
+ * Per-partition lag comes from the Kafka client metrics Boot already binds
+ * ({@code kafka.consumer.fetch.manager.records.lag}).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KafkaListenerMetrics implements RecordInterceptor<Object, Object>, BatchInterceptor<Object, Object>,
+        ConsumerAwareRebalanceListener {
+
+    private static final ThreadLocal<Long> START = new ThreadLocal<>();
+    private static final ThreadLocal<String> GROUP = new ThreadLocal<>();
+    /** Set by {@link #timeUntil}: the record is timed on completion, not when the listener returns. */
+    private static final ThreadLocal<Boolean> ASYNC = new ThreadLocal<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Set<TopicPartition>> assigned = new ConcurrentHashMap<>();
+
+    @Override
+    public ConsumerRecord<Object, Object> intercept(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        START.set(System.nanoTime());
+        GROUP.set(groupOf(consumer));
+        ASYNC.remove();
+        return record;
+    }
+
+    @Override
+    public void success(ConsumerRecord<Object, Object> record, Consumer<Object, Object> consumer) {
+        if (!timedAsync()) {
+            record(consumer, record.topic(), 1, null);
+        }
+    }
+
+    @Override
+    public void failure(ConsumerRecord<Object, Object> record, Exception exception, Consumer<Object, Object> consumer) {
+        if (timedAsync()) {
+            return;
+        }
+        if (rootCause(exception) instanceof KafkaBackoffException) {
+            return; // a retry-topic record that is not due yet; it is redelivered, not failed
+        }
+        record(consumer, record.topic(), 1, exception);
+    }
+
+    /**
+     * For a record listener that returns before its record is processed: call it from the listener with the
+     * future of that processing. The record is then timed from interception until {@code completion} completes,
+     * and counted as a failure if it completes exceptionally, instead of being timed when the listener returns.
+     */
+    public void timeUntil(ConsumerRecord<?, ?> record, CompletableFuture<?> completion) {
+        Long start = START.get();
+        String group = GROUP.get();
+        if (start == null || group == null) {
+            return; // not called from an intercepted listener
+        }
+        ASYNC.set(Boolean.TRUE);
+        completion.whenComplete((result, exception) ->
+                timer(group, record.topic(), exception).record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public ConsumerRecords<Object, Object> intercept(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        START.set(System.nanoTime());
+        return records;
+    }
+
+    @Override
+    public void success(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer) {
+        recordBatch(records, consumer, null);
+    }
+
+    @Override
+    public void failure(ConsumerRecords<Object, Object> records, Exception exception, Consumer<Object, Object> consumer) {
+        recordBatch(records, consumer, exception);
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        String group = groupOf(consumer);
+        partitionsOf(group).addAll(partitions);
+        rebalance(group, "assigned", partitions);
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        String group = groupOf(consumer);
+        partitionsOf(group).removeAll(partitions);
+        rebalance(group, "revoked", partitions);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> partitions) {
+        String group = groupOf(consumer);
+        partitionsOf(group).removeAll(partitions);
+        rebalance(group, "lost", partitions);
+    }
+
+    /** A batch is timed as a whole; each record is charged its share so the histogram stays per record. */
+    private void recordBatch(ConsumerRecords<Object, Object> records, Consumer<Object, Object> consumer, Exception exception) {
+        for (TopicPartition partition : records.partitions()) {
+            record(consumer, partition.topic(), records.records(partition).size(), exception);
+        }
+    }
+
+    private void record(Consumer<?, ?> consumer, String topic, int count, Exception exception) {
+        Long start = START.get();
+        if (start == null || count == 0) {
+            return;
+        }
+        long perRecord = (System.nanoTime() - start) / count;
+        Timer timer = timer(groupOf(consumer), topic, exception);
+        for (int i = 0; i < count; i++) {
+            timer.record(perRecord, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(String group, String topic, Throwable exception) {
+        return Timer.builder("kafka.listener.record")
+                .tag("group", group)
+                .tag("topic", topic)
+                .tag("result", exception == null ? "success" : "failure")
+                .tag("exception", exception == null ? "none" : rootCause(exception).getClass().getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /** Whether the record just handled was passed to {@link #timeUntil}; clears the mark. */
+    private static boolean timedAsync() {
+        boolean async = Boolean.TRUE.equals(ASYNC.get());
+        ASYNC.remove();
+        return async;
+    }
+
+    private void rebalance(String group, String event, Collection<TopicPartition> partitions) {
+        if (partitions.isEmpty()) {
+            return;
+        }
+        meterRegistry.counter("kafka.listener.rebalances", "group", group, "event", event).increment();
+        log.info("Consumer group {} partitions {}: {}", group, event, partitions);
+    }
+
+    private Set<TopicPartition> partitionsOf(String group) {
+        return assigned.computeIfAbsent(group, g -> {
+            Set<TopicPartition> partitions = ConcurrentHashMap.newKeySet();
+            meterRegistry.gauge("kafka.listener.assigned.partitions",
+                    Tags.of("group", g), partitions, Set::size);
+            return partitions;
+        });
+    }
+
+    private static String groupOf(Consumer<?, ?> consumer) {
+        return consumer.groupMetadata().groupId();
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        Throwable cause = e;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
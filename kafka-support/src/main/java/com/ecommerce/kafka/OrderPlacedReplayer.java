@@ -0,0 +1,279 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays order-placed history through a service's handler ({@link #apply}) to rebuild its state, e.g. into a
+ * fresh database after a handler fix. A service subclasses it as a {@code @Component @Profile("replay")}, so it runs
+ * instead of the service (no web server, listeners not started) and exits when it has caught up with the end
+ * offsets taken at start.
+ * <p>
+ * Settings are read under the subclass's property prefix ({@code <prefix>.topic}, {@code group-id},
+ * {@code from-offset}, {@code from-timestamp}, {@code batch-size}, {@code workers}, {@code dry-run},
+ * {@code report-interval-ms}). The topic is read by assignment under a scratch consumer group, starting at
+ * {@code from-offset} or {@code from-timestamp}, else at the group's committed offsets, else at the beginning. Each
+ * poll is split by orderId over the worker pool, so events of one order stay in order, and offsets are committed
+ * once the whole poll is done, so an interrupted replay resumes where it stopped. If a slice stops short, offsets
+ * are committed only up to its first event not applied and the replay exits non-zero, so nothing past a failure is
+ * skipped on rerun. Dry-run (the default) only decodes and counts.
+ */
+@Slf4j
+public abstract class OrderPlacedReplayer implements ApplicationRunner {
+
+    private static final Duration POLL_TIMEOUT = Duration.ofSeconds(1);
+
+    private final KafkaProperties kafkaProperties;
+    private final ConfigurableApplicationContext context;
+    private final String topic;
+    private final String groupId;
+    private final Long fromOffset;
+    private final String fromTimestamp;
+    private final int batchSize;
+    private final int workers;
+    private final boolean dryRun;
+    private final long reportIntervalMs;
+
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private long skipped;
+
+    /** Reads the settings under {@code prefix}; the scratch group defaults to {@code defaultGroupId}. */
+    protected OrderPlacedReplayer(KafkaProperties kafkaProperties, ConfigurableApplicationContext context,
+                                  String prefix, String defaultGroupId) {
+        Environment env = context.getEnvironment();
+        this.kafkaProperties = kafkaProperties;
+        this.context = context;
+        this.topic = env.getProperty(prefix + ".topic", OrderPlacedRetryConfigSupport.ORDER_PLACED_TOPIC);
+        this.groupId = env.getProperty(prefix + ".group-id", defaultGroupId);
+        this.fromOffset = env.getProperty(prefix + ".from-offset", Long.class);
+        this.fromTimestamp = env.getProperty(prefix + ".from-timestamp", "");
+        this.batchSize = env.getProperty(prefix + ".batch-size", Integer.class, 5000);
+        this.workers = env.getProperty(prefix + ".workers", Integer.class, 8);
+        this.dryRun = env.getProperty(prefix + ".dry-run", Boolean.class, true);
+        this.reportIntervalMs = env.getProperty(prefix + ".report-interval-ms", Long.class, 5000L);
+    }
+
+    /**
+     * Applies the events, all of one slice of orders, in order and returns how many were applied before the first
+     * one that failed (logging the failure), or all of them. Events after that are not applied and are read again
+     * on rerun. Runs on several workers at once; a thrown exception counts as none applied.
+     */
+    protected abstract int apply(List<OrderPlacedEvent> events);
+
+    /** Extra figures for the progress reports, e.g. " (12 payments recorded)". */
+    protected String reportDetail() {
+        return "";
+    }
+
+    /** The consumer to read the topic with; tests substitute a mock. */
+    protected Consumer<String, OrderPlacedEvent> createConsumer(Map<String, Object> props) {
+        return new KafkaConsumer<>(props);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            replay();
+        } catch (RuntimeException e) {
+            log.error("Replay of {} failed: {}", topic, e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+
+    void replay() {
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        try (Consumer<String, OrderPlacedEvent> consumer = createConsumer(consumerProps())) {
+            List<TopicPartition> partitions = consumer.partitionsFor(topic, Duration.ofSeconds(30)).stream()
+                    .map(p -> new TopicPartition(p.topic(), p.partition()))
+                    .toList();
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+            seek(consumer, partitions, endOffsets);
+
+            Set<TopicPartition> remaining = new HashSet<>(partitions);
+            long start = System.nanoTime();
+            long lastReport = start;
+            log.info("Replaying {} ({} partitions, {} events) with group {}{}", topic, partitions.size(),
+                    lag(consumer, remaining, endOffsets), groupId, dryRun ? " [dry run]" : "");
+            while (true) {
+                complete(consumer, remaining, endOffsets);
+                if (remaining.isEmpty()) {
+                    break;
+                }
+                ConsumerRecords<String, OrderPlacedEvent> records = consumer.poll(POLL_TIMEOUT);
+                Map<TopicPartition, Long> firstUnapplied = process(records, endOffsets, pool);
+                if (!dryRun && !records.isEmpty()) {
+                    Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+                    for (TopicPartition partition : records.partitions()) {
+                        long next = Math.min(consumer.position(partition), endOffsets.get(partition));
+                        offsets.put(partition, new OffsetAndMetadata(firstUnapplied.getOrDefault(partition, next)));
+                    }
+                    consumer.commitSync(offsets);
+                }
+                if (!firstUnapplied.isEmpty()) {
+                    report("Stopped", start, System.nanoTime(), lag(consumer, remaining, endOffsets));
+                    throw new IllegalStateException("Events failed at offsets " + firstUnapplied
+                            + "; offsets are committed up to them, so a rerun resumes there");
+                }
+                long now = System.nanoTime();
+                if (now - lastReport >= reportIntervalMs * 1_000_000) {
+                    report("Progress", start, now, lag(consumer, remaining, endOffsets));
+                    lastReport = now;
+                }
+            }
+            report("Finished", start, System.nanoTime(), 0);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Splits the poll by orderId over the workers and waits for all of them. Records past the end offsets are ignored.
+     * Returns, for each partition with records a worker did not apply, the lowest such offset.
+     */
+    private Map<TopicPartition, Long> process(ConsumerRecords<String, OrderPlacedEvent> records,
+                                              Map<TopicPartition, Long> endOffsets, ExecutorService pool) {
+        List<List<ConsumerRecord<String, OrderPlacedEvent>>> slices = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            slices.add(new ArrayList<>());
+        }
+        for (ConsumerRecord<String, OrderPlacedEvent> record : records) {
+            if (record.offset() >= endOffsets.get(new TopicPartition(record.topic(), record.partition()))) {
+                continue;
+            }
+            OrderPlacedEvent event = record.value();
+            if (event == null || event.getOrderId() == null || event.getItems() == null) {
+                skipped++;
+                continue;
+            }
+            slices.get(Math.floorMod(event.getOrderId().hashCode(), workers)).add(record);
+        }
+        List<Future<List<ConsumerRecord<String, OrderPlacedEvent>>>> futures = new ArrayList<>();
+        for (List<ConsumerRecord<String, OrderPlacedEvent>> slice : slices) {
+            if (!slice.isEmpty()) {
+                futures.add(pool.submit(() -> handle(slice)));
+            }
+        }
+        Map<TopicPartition, Long> firstUnapplied = new HashMap<>();
+        for (Future<List<ConsumerRecord<String, OrderPlacedEvent>>> future : futures) {
+            try {
+                for (ConsumerRecord<String, OrderPlacedEvent> record : future.get()) {
+                    firstUnapplied.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::min);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Replay interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Replay worker failed", e.getCause());
+            }
+        }
+        return firstUnapplied;
+    }
+
+    /** Applies one slice and returns the records that were not applied. */
+    private List<ConsumerRecord<String, OrderPlacedEvent>> handle(List<ConsumerRecord<String, OrderPlacedEvent>> slice) {
+        int applied = slice.size();
+        if (!dryRun) {
+            try {
+                List<OrderPlacedEvent> events = slice.stream().map(ConsumerRecord::value).toList();
+                applied = Math.max(0, Math.min(slice.size(), apply(events)));
+            } catch (RuntimeException e) {
+                log.error("Replay of {} events failed: {}", slice.size(), e.getMessage(), e);
+                applied = 0;
+            }
+        }
+        processed.addAndGet(applied);
+        failed.addAndGet(slice.size() - applied);
+        return slice.subList(applied, slice.size());
+    }
+
+    private void seek(Consumer<?, ?> consumer, List<TopicPartition> partitions, Map<TopicPartition, Long> endOffsets) {
+        Map<TopicPartition, Long> beginning = consumer.beginningOffsets(partitions);
+        if (fromOffset != null) {
+            for (TopicPartition partition : partitions) {
+                consumer.seek(partition, Math.min(Math.max(fromOffset, beginning.get(partition)), endOffsets.get(partition)));
+            }
+        } else if (!fromTimestamp.isBlank()) {
+            long timestamp = Instant.parse(fromTimestamp).toEpochMilli();
+            Map<TopicPartition, Long> query = new HashMap<>();
+            partitions.forEach(partition -> query.put(partition, timestamp));
+            Map<TopicPartition, OffsetAndTimestamp> found = consumer.offsetsForTimes(query);
+            for (TopicPartition partition : partitions) {
+                OffsetAndTimestamp offset = found.get(partition);
+                consumer.seek(partition, offset != null ? offset.offset() : endOffsets.get(partition));
+            }
+        } else {
+            Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+            for (TopicPartition partition : partitions) {
+                OffsetAndMetadata offset = committed.get(partition);
+                consumer.seek(partition, offset != null ? offset.offset() : beginning.get(partition));
+            }
+        }
+    }
+
+    /** Pauses partitions that have reached their end offset and drops them from {@code remaining}. */
+    private static void complete(Consumer<?, ?> consumer, Set<TopicPartition> remaining, Map<TopicPartition, Long> endOffsets) {
+        List<TopicPartition> done = remaining.stream()
+                .filter(partition -> consumer.position(partition) >= endOffsets.get(partition))
+                .toList();
+        if (!done.isEmpty()) {
+            consumer.pause(done);
+            done.forEach(remaining::remove);
+        }
+    }
+
+    private static long lag(Consumer<?, ?> consumer, Set<TopicPartition> remaining, Map<TopicPartition, Long> endOffsets) {
+        return remaining.stream()
+                .mapToLong(partition -> Math.max(0, endOffsets.get(partition) - consumer.position(partition)))
+                .sum();
+    }
+
+    private void report(String stage, long start, long now, long remaining) {
+        long elapsedMs = Math.max(1, (now - start) / 1_000_000);
+        log.info("{}: {} events replayed{}, {} failed, {} skipped, {} remaining in {} ms ({} events/sec)", stage,
+                processed.get(), reportDetail(), failed.get(), skipped, remaining, elapsedMs,
+                processed.get() * 1000 / elapsedMs);
+    }
+
+    private Map<String, Object> consumerProps() {
+        Map<String, Object> props = kafkaProperties.buildConsumerProperties(null);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, batchSize);
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, 1 << 20);
+        props.put(ConsumerConfig.MAX_PARTITION_FETCH_BYTES_CONFIG, 8 << 20);
+        return props;
+    }
+}
@@ -0,0 +1,136 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.events.serde.OrderPlacedEventSerializer;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfigurationBuilder;
+import org.springframework.kafka.retrytopic.RetryTopicSchedulerWrapper;
+import org.springframework.kafka.support.ExponentialBackOffWithMaxRetries;
+import org.springframework.kafka.support.serializer.DelegatingByTypeSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.Map;
+
+/**
+ * Base for a consumer's {@code @Configuration @EnableKafkaRetryTopic} class retrying order-placed. A failed record
+ * is republished to {@code order-placed<retrySuffix>-N} and retried there after an exponentially growing delay, so
+ * the main partition keeps flowing; once the attempts are used up it goes to {@code order-placed<dltSuffix>}. The
+ * suffixes carry the consumer's name because several services consume the topic.
+ * <p>
+ * Subclasses declare the beans they need from the builders here, adding their own conditions and exceptions not
+ * worth retrying.
+ */
+public abstract class OrderPlacedRetryConfigSupport {
+
+    public static final String ORDER_PLACED_TOPIC = "order-placed";
+
+    private final KafkaProperties kafkaProperties;
+    private final String retrySuffix;
+    private final String dltSuffix;
+    protected final int attempts;
+    protected final long initialIntervalMs;
+    protected final double multiplier;
+    protected final long maxIntervalMs;
+    private DefaultKafkaProducerFactory<String, Object> retryProducerFactory;
+    private KafkaTemplate<String, Object> retryTemplate;
+
+    protected OrderPlacedRetryConfigSupport(KafkaProperties kafkaProperties, String retrySuffix, String dltSuffix,
+                                            int attempts, long initialIntervalMs, double multiplier, long maxIntervalMs) {
+        this.kafkaProperties = kafkaProperties;
+        this.retrySuffix = retrySuffix;
+        this.dltSuffix = dltSuffix;
+        this.attempts = attempts;
+        this.initialIntervalMs = initialIntervalMs;
+        this.multiplier = multiplier;
+        this.maxIntervalMs = maxIntervalMs;
+    }
+
+    /**
+     * Resumes retry-topic partitions once a record's backoff has passed. Kept here rather than borrowed from the
+     * application's TaskScheduler, which does not exist under the replay profile.
+     */
+    @Bean
+    public RetryTopicSchedulerWrapper retryTopicSchedulerWrapper() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setThreadNamePrefix("retry-topic-");
+        return new RetryTopicSchedulerWrapper(scheduler);
+    }
+
+    /**
+     * Retry topics for order-placed with this consumer's suffixes and backoff; subclasses add their own options and
+     * finish with {@code create(retryTemplate())}.
+     */
+    protected RetryTopicConfigurationBuilder retryTopics() {
+        return RetryTopicConfigurationBuilder.newInstance()
+                .maxAttempts(attempts)
+                .exponentialBackoff(initialIntervalMs, multiplier, maxIntervalMs)
+                .retryTopicSuffix(retrySuffix)
+                .dltSuffix(dltSuffix)
+                .suffixTopicsWithIndexValues()
+                .includeTopic(ORDER_PLACED_TOPIC);
+    }
+
+    /**
+     * For batch listeners, which cannot use retry topics: retries in place with the same backoff, then publishes
+     * the failing record to the same dead-letter topic.
+     */
+    protected DefaultErrorHandler deadLetteringErrorHandler() {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(retryTemplate(),
+                (record, ex) -> new TopicPartition(dltTopic(), -1));
+        ExponentialBackOffWithMaxRetries backOff = new ExponentialBackOffWithMaxRetries(attempts - 1);
+        backOff.setInitialInterval(initialIntervalMs);
+        backOff.setMultiplier(multiplier);
+        backOff.setMaxInterval(maxIntervalMs);
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+
+    protected DeadLetterReplayService deadLetterReplayService(String replayGroup) {
+        return new DeadLetterReplayService(kafkaProperties, dltTopic(), firstRetryTopic(), replayGroup);
+    }
+
+    protected String firstRetryTopic() {
+        return ORDER_PLACED_TOPIC + retrySuffix + "-0";
+    }
+
+    protected String dltTopic() {
+        return ORDER_PLACED_TOPIC + dltSuffix;
+    }
+
+    /**
+     * Republishes failed records. Values are the deserialized events, or the raw bytes of records that could
+     * not be deserialized, so the template serializes by type. Not a bean, so the auto-configured String
+     * template stays in place for the service's own events.
+     */
+    protected synchronized KafkaTemplate<String, Object> retryTemplate() {
+        if (retryTemplate != null) {
+            return retryTemplate;
+        }
+        Map<String, Object> props = kafkaProperties.buildProducerProperties(null);
+        OrderPlacedEventSerializer eventSerializer = new OrderPlacedEventSerializer();
+        eventSerializer.configure(props, false);
+        Map<Class<?>, Serializer<?>> serializers = Map.of(
+                OrderPlacedEvent.class, eventSerializer,
+                byte[].class, new ByteArraySerializer());
+        retryProducerFactory = new DefaultKafkaProducerFactory<>(props, new StringSerializer(),
+                new DelegatingByTypeSerializer(serializers));
+        retryTemplate = new KafkaTemplate<>(retryProducerFactory);
+        return retryTemplate;
+    }
+
+    @PreDestroy
+    public void closeRetryProducer() {
+        if (retryProducerFactory != null) {
+            retryProducerFactory.destroy();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.ecommerce.kafka;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DeadLetterReplayServiceTest {
+
+    private static final TopicPartition DLT = new TopicPartition("order-placed-payment-dlt", 0);
+
+    /** Left open by the service so the committed offsets can be read afterwards. */
+    private final MockConsumer<byte[], byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+        @Override
+        public synchronized void close() {
+        }
+    };
+
+    @Test
+    void copiesRecordsAndCommitsAfterTheyAreAcknowledged() {
+        MockProducer<byte[], byte[]> producer = producerFailing(null);
+        dltWithRecords(5);
+
+        DeadLetterReplayResponse response = service(producer).replay(10);
+
+        assertThat(response.getReplayed()).isEqualTo(5);
+        assertThat(producer.history()).extracting(ProducerRecord::topic).containsOnly("order-placed-payment-retry-0");
+        assertThat(committed()).isEqualTo(5);
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        dltWithRecords(5);
+
+        assertThat(service(producerFailing(null)).replay(3).getReplayed()).isEqualTo(3);
+        assertThat(committed()).isEqualTo(3);
+    }
+
+    @Test
+    void failedCopyAbortsAndCommitsOnlyTheAcknowledgedRecordsBeforeIt() {
+        dltWithRecords(5);
+
+        assertThatThrownBy(() -> service(producerFailing("3")).replay(10))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("not acknowledged")
+                .hasCauseInstanceOf(KafkaException.class);
+
+        assertThat(committed()).isEqualTo(2);
+    }
+
+    @Test
+    void failedFirstCopyCommitsNothing() {
+        dltWithRecords(5);
+
+        assertThatThrownBy(() -> service(producerFailing("1")).replay(10))
+                .isInstanceOf(IllegalStateException.class);
+
+        assertThat(consumer.committed(Set.of(DLT))).isEmpty();
+    }
+
+    private void dltWithRecords(int records) {
+        consumer.updatePartitions(DLT.topic(), List.of(
+                new PartitionInfo(DLT.topic(), 0, Node.noNode(), new Node[0], new Node[0])));
+        consumer.updateBeginningOffsets(Map.of(DLT, 0L));
+        consumer.schedulePollTask(() -> {
+            for (int i = 1; i <= records; i++) {
+                byte[] key = String.valueOf(i).getBytes(StandardCharsets.UTF_8);
+                consumer.addRecord(new ConsumerRecord<>(DLT.topic(), 0, i - 1, key, key));
+            }
+        });
+    }
+
+    private long committed() {
+        OffsetAndMetadata offset = consumer.committed(Set.of(DLT)).get(DLT);
+        return offset != null ? offset.offset() : 0;
+    }
+
+    /** Acknowledges every copy except the one whose key is {@code failingKey}. */
+    private static MockProducer<byte[], byte[]> producerFailing(String failingKey) {
+        return new MockProducer<>(true, new ByteArraySerializer(), new ByteArraySerializer()) {
+            @Override
+            public synchronized Future<RecordMetadata> send(ProducerRecord<byte[], byte[]> record) {
+                if (new String(record.key(), StandardCharsets.UTF_8).equals(failingKey)) {
+                    return CompletableFuture.failedFuture(new KafkaException("broker unavailable"));
+                }
+                return super.send(record);
+            }
+        };
+    }
+
+    private DeadLetterReplayService service(Producer<byte[], byte[]> producer) {
+        return new DeadLetterReplayService(new KafkaProperties(), DLT.topic(), "order-placed-payment-retry-0",
+                "payment-dlt-replay") {
+            @Override
+            protected Consumer<byte[], byte[]> createConsumer(Map<String, Object> props) {
+                return consumer;
+            }
+
+            @Override
+            protected Producer<byte[], byte[]> createProducer(Map<String, Object> props) {
+                return producer;
+            }
+        };
+    }
+}
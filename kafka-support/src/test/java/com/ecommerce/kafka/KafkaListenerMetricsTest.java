@@ -0,0 +1,85 @@
+package com.ecommerce.kafka;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerGroupMetadata;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KafkaListenerMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final KafkaListenerMetrics metrics = new KafkaListenerMetrics(meterRegistry);
+    private final ConsumerRecord<Object, Object> record = new ConsumerRecord<>("order-placed", 0, 0, "1", "event");
+    @SuppressWarnings("unchecked")
+    private final Consumer<Object, Object> consumer = mock(Consumer.class);
+
+    @BeforeEach
+    void setUp() {
+        when(consumer.groupMetadata()).thenReturn(new ConsumerGroupMetadata("payment-service"));
+    }
+
+    @Test
+    void recordIsTimedWhenTheListenerReturns() {
+        metrics.intercept(record, consumer);
+        metrics.success(record, consumer);
+
+        assertThat(timer("success").count()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncRecordIsTimedUntilItsProcessingCompletes() throws Exception {
+        CompletableFuture<Void> processing = new CompletableFuture<>();
+        metrics.intercept(record, consumer);
+        metrics.timeUntil(record, processing);
+        metrics.success(record, consumer);
+
+        assertThat(meterRegistry.find("kafka.listener.record").timer()).isNull();
+
+        Thread.sleep(50);
+        processing.complete(null);
+
+        assertThat(timer("success").count()).isEqualTo(1);
+        assertThat(timer("success").totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+    }
+
+    @Test
+    void asyncRecordThatFailsIsCountedAsFailure() {
+        CompletableFuture<Void> processing = new CompletableFuture<>();
+        metrics.intercept(record, consumer);
+        metrics.timeUntil(record, processing);
+        metrics.success(record, consumer);
+        processing.completeExceptionally(new IllegalStateException("declined"));
+
+        assertThat(timer("failure").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("kafka.listener.record").tag("exception", "IllegalStateException").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("kafka.listener.record").tag("result", "success").timer()).isNull();
+    }
+
+    @Test
+    void asyncMarkDoesNotCarryOverToTheNextRecord() {
+        metrics.intercept(record, consumer);
+        metrics.timeUntil(record, new CompletableFuture<>());
+        metrics.success(record, consumer);
+
+        metrics.intercept(record, consumer);
+        metrics.success(record, consumer);
+
+        assertThat(timer("success").count()).isEqualTo(1);
+    }
+
+    private Timer timer(String result) {
+        return meterRegistry.get("kafka.listener.record").tag("group", "payment-service").tag("topic", "order-placed")
+                .tag("result", result).timer();
+    }
+}
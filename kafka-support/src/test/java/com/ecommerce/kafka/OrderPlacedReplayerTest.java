@@ -0,0 +1,103 @@
+package com.ecommerce.kafka;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderPlacedReplayerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("order-placed", 0);
+
+    /** Left open by the replayer so the committed offsets can be read afterwards. */
+    private final MockConsumer<String, OrderPlacedEvent> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+        @Override
+        public synchronized void close() {
+        }
+    };
+    private final List<Long> applied = new ArrayList<>();
+
+    @Test
+    void replaysEveryEventAndCommitsTheEndOffset() {
+        topicWithOrders(6);
+
+        replayer(order -> true).replay();
+
+        assertThat(applied).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        assertThat(committed()).isEqualTo(6);
+    }
+
+    @Test
+    void stopsAtTheFirstEventNotAppliedAndCommitsUpToIt() {
+        topicWithOrders(6);
+
+        assertThatThrownBy(() -> replayer(order -> order != 4).replay())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("offsets are committed up to them");
+
+        assertThat(applied).containsExactly(1L, 2L, 3L);
+        assertThat(committed()).isEqualTo(3);
+    }
+
+    private void topicWithOrders(int orders) {
+        consumer.updatePartitions(PARTITION.topic(), List.of(
+                new PartitionInfo(PARTITION.topic(), 0, Node.noNode(), new Node[0], new Node[0])));
+        consumer.updateBeginningOffsets(Map.of(PARTITION, 0L));
+        consumer.updateEndOffsets(Map.of(PARTITION, (long) orders));
+        consumer.schedulePollTask(() -> {
+            for (long order = 1; order <= orders; order++) {
+                OrderPlacedEvent event = OrderPlacedEvent.builder().orderId(order).items(List.of()).build();
+                consumer.addRecord(new ConsumerRecord<>(PARTITION.topic(), 0, order - 1, String.valueOf(order), event));
+            }
+        });
+    }
+
+    private long committed() {
+        return consumer.committed(Set.of(PARTITION)).get(PARTITION).offset();
+    }
+
+    /** One worker, so the whole poll is one slice applied in order until {@code succeeds} rejects an order. */
+    private OrderPlacedReplayer replayer(Predicate<Long> succeeds) {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("test.replay.dry-run", "false")
+                .withProperty("test.replay.workers", "1");
+        ConfigurableApplicationContext context = mock(ConfigurableApplicationContext.class);
+        when(context.getEnvironment()).thenReturn(env);
+        return new OrderPlacedReplayer(new KafkaProperties(), context, "test.replay", "test-replay") {
+            @Override
+            protected int apply(List<OrderPlacedEvent> events) {
+                for (int i = 0; i < events.size(); i++) {
+                    if (!succeeds.test(events.get(i).getOrderId())) {
+                        return i;
+                    }
+                    applied.add(events.get(i).getOrderId());
+                }
+                return events.size();
+            }
+
+            @Override
+            protected Consumer<String, OrderPlacedEvent> createConsumer(Map<String, Object> props) {
+                return consumer;
+            }
+        };
+    }
+}
@@ -1,30 +0,0 @@
-package com.ecommerce.orderservice.dto;
-
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-import java.util.List;
-
-@Data
-@Builder
-@NoArgsConstructor
-@AllArgsConstructor
-public class OrderPlacedEvent {
-
-    private Long orderId;
-    private Long userId;
-    private List<OrderItemDto> items;
-    private Double totalAmount;
-
-    @Data
-    @Builder
-    @NoArgsConstructor
-    @AllArgsConstructor
-    public static class OrderItemDto {
-        private Long productId;
-        private Integer quantity;
-        private Double price;
-    }
-}
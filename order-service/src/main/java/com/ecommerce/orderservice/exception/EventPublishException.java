@@ -0,0 +1,8 @@
+package com.ecommerce.orderservice.exception;
+
+public class EventPublishException extends RuntimeException {
+
+    public EventPublishException(String message) {
+        super(message);
+    }
+}
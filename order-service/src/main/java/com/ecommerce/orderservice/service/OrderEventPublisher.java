@@ -0,0 +1,93 @@
+package com.ecommerce.orderservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.orderservice.exception.EventPublishException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes OrderPlacedEvents, keyed by orderId, through the idempotent, batched and compressed producer
+ * configured under spring.kafka.producer.
+ * <p>
+ * Sends are asynchronous; the completion callback records latency in {@code orders.events.send}, tagged by
+ * topic and result. A semaphore caps sends awaiting acknowledgement. When it is exhausted the caller waits up
+ * to {@code order.events.acquire-timeout-ms} and then gets an {@link EventPublishException}, so a slow or
+ * unreachable broker pushes back on order creation instead of piling events up in memory.
+ */
+@Slf4j
+@Component
+public class OrderEventPublisher {
+
+    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String topic;
+    private final Semaphore inFlight;
+    private final long acquireTimeoutMs;
+
+    public OrderEventPublisher(KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${order.events.topic:order-placed}") String topic,
+                               @Value("${order.events.max-in-flight:1000}") int maxInFlight,
+                               @Value("${order.events.acquire-timeout-ms:2000}") long acquireTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.topic = topic;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        Gauge.builder("orders.events.in-flight", inFlight, s -> maxInFlight - s.availablePermits())
+                .register(meterRegistry);
+    }
+
+    public void publish(OrderPlacedEvent event) {
+        acquire(event.getOrderId());
+        long start = System.nanoTime();
+        try {
+            kafkaTemplate.send(topic, String.valueOf(event.getOrderId()), event)
+                    .whenComplete((result, ex) -> {
+                        inFlight.release();
+                        sendTimer(ex == null ? "success" : "failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                        if (ex != null) {
+                            log.error("Failed to publish OrderPlacedEvent for orderId={}: {}", event.getOrderId(), ex.getMessage());
+                        } else {
+                            log.debug("Published OrderPlacedEvent for orderId={} at {}-{}@{}", event.getOrderId(), topic,
+                                    result.getRecordMetadata().partition(), result.getRecordMetadata().offset());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            // serialization and producer errors thrown before the record is handed to the producer
+            inFlight.release();
+            sendTimer("failure").record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            log.error("Failed to publish OrderPlacedEvent for orderId={}: {}", event.getOrderId(), e.getMessage());
+        }
+    }
+
+    private void acquire(Long orderId) {
+        boolean acquired;
+        try {
+            acquired = inFlight.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            meterRegistry.counter("orders.events.rejected", "topic", topic).increment();
+            throw new EventPublishException("Order events are backed up; could not publish event for order " + orderId);
+        }
+    }
+
+    private Timer sendTimer(String result) {
+        return Timer.builder("orders.events.send")
+                .tag("topic", topic)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
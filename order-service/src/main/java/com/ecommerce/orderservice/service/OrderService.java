@@ -1,5 +1,6 @@
 package com.ecommerce.orderservice.service;
 
+import com.ecommerce.events.OrderPlacedEvent;
 import com.ecommerce.orderservice.client.InventoryClient;
 import com.ecommerce.orderservice.client.ProductClient;
 import com.ecommerce.orderservice.client.UserClient;
@@ -10,11 +11,8 @@ import com.ecommerce.orderservice.entity.Order.OrderStatus;
 import com.ecommerce.orderservice.exception.ResourceNotFoundException;
 import com.ecommerce.orderservice.exception.ValidationException;
 import com.ecommerce.orderservice.repository.OrderRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -32,8 +30,7 @@ public class OrderService {
     private final UserClient userClient;
     private final ProductClient productClient;
     private final InventoryClient inventoryClient;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OrderEventPublisher orderEventPublisher;
 
     @Transactional
     public OrderResponse createOrder(OrderRequest request) {
@@ -84,26 +81,20 @@ public class OrderService {
     }
 
     private void publishOrderPlacedEvent(Order order, List<OrderItem> orderItems) {
-        try {
-            List<OrderPlacedEvent.OrderItemDto> items = orderItems.stream()
-                    .map(i -> OrderPlacedEvent.OrderItemDto.builder()
-                            .productId(i.getProductId())
-                            .quantity(i.getQuantity())
-                            .price(i.getUnitPrice().doubleValue())
-                            .build())
-                    .collect(Collectors.toList());
-            OrderPlacedEvent event = OrderPlacedEvent.builder()
-                    .orderId(order.getId())
-                    .userId(order.getUserId())
-                    .items(items)
-                    .totalAmount(order.getTotalAmount().doubleValue())
-                    .build();
-            String json = objectMapper.writeValueAsString(event);
-            kafkaTemplate.send("order-placed", json);
-            log.info("Published OrderPlacedEvent for orderId={}", order.getId());
-        } catch (JsonProcessingException e) {
-            log.error("Failed to publish OrderPlacedEvent: {}", e.getMessage());
-        }
+        List<OrderPlacedEvent.OrderItemDto> items = orderItems.stream()
+                .map(i -> OrderPlacedEvent.OrderItemDto.builder()
+                        .productId(i.getProductId())
+                        .quantity(i.getQuantity())
+                        .price(i.getUnitPrice().doubleValue())
+                        .build())
+                .collect(Collectors.toList());
+        OrderPlacedEvent event = OrderPlacedEvent.builder()
+                .orderId(order.getId())
+                .userId(order.getUserId())
+                .items(items)
+                .totalAmount(order.getTotalAmount().doubleValue())
+                .build();
+        orderEventPublisher.publish(event);
     }
 
     public OrderResponse getOrderById(Long id) {
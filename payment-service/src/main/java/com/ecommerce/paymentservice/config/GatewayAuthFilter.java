@@ -0,0 +1,53 @@
+package com.ecommerce.paymentservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Builds SecurityContext from gateway-set headers (X-User-Id, X-User-Roles).
+ * Gateway validates JWT and forwards these headers to downstream services.
+ */
+public class GatewayAuthFilter extends OncePerRequestFilter {
+
+    private static final String HEADER_USER_ID = "X-User-Id";
+    private static final String HEADER_USER_ROLES = "X-User-Roles";
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request,
+                                    @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain filterChain) throws ServletException, IOException {
+        String userId = request.getHeader(HEADER_USER_ID);
+        String rolesHeader = request.getHeader(HEADER_USER_ROLES);
+        if (userId != null && !userId.isBlank()) {
+            List<SimpleGrantedAuthority> authorities = parseRoles(rolesHeader);
+            var auth = new UsernamePasswordAuthenticationToken(userId, null, authorities);
+            SecurityContextHolder.getContext().setAuthentication(auth);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static List<SimpleGrantedAuthority> parseRoles(String rolesHeader) {
+        if (rolesHeader == null || rolesHeader.isBlank()) {
+            return List.of(new SimpleGrantedAuthority(ROLE_PREFIX + "USER"));
+        }
+        return Stream.of(rolesHeader.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .map(role -> role.startsWith(ROLE_PREFIX) ? role : ROLE_PREFIX + role.toUpperCase())
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+    }
+}
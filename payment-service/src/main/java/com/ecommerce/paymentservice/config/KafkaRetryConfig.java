@@ -0,0 +1,86 @@
+package com.ecommerce.paymentservice.config;
+
+import com.ecommerce.kafka.DeadLetterReplayService;
+import com.ecommerce.kafka.OrderPlacedRetryConfigSupport;
+import com.ecommerce.paymentservice.service.OrderPlacedRetryForwarder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.ConcurrentKafkaListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaRetryTopic;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties.AckMode;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+
+/**
+ * Retries for order-placed.
+ * <p>
+ * Record mode uses non-blocking retry topics: a failed record is republished to order-placed-payment-retry-N
+ * and retried there after an exponentially growing delay, so the main partition keeps flowing; once the
+ * attempts are used up it goes to order-placed-payment-dlt. Batch listeners cannot use retry topics, so batch
+ * mode retries in place with the same backoff and then publishes the failing record to the same dead-letter
+ * topic. The suffixes carry the service name because inventory-service consumes the same topic.
+ * <p>
+ * Record-mode containers acknowledge manually with async acks: the listener acknowledges each record when its
+ * payment is recorded, possibly out of order, and the container still commits offsets in order.
+ */
+@Configuration
+@EnableKafkaRetryTopic
+public class KafkaRetryConfig extends OrderPlacedRetryConfigSupport {
+
+    public static final String RETRY_SUFFIX = "-payment-retry";
+    public static final String DLT_SUFFIX = "-payment-dlt";
+    public static final String RECORD_LISTENER_FACTORY = "orderPlacedListenerFactory";
+
+    public KafkaRetryConfig(KafkaProperties kafkaProperties,
+                            @Value("${payment.retry.attempts:4}") int attempts,
+                            @Value("${payment.retry.initial-interval-ms:1000}") long initialIntervalMs,
+                            @Value("${payment.retry.multiplier:5.0}") double multiplier,
+                            @Value("${payment.retry.max-interval-ms:60000}") long maxIntervalMs) {
+        super(kafkaProperties, RETRY_SUFFIX, DLT_SUFFIX, attempts, initialIntervalMs, multiplier, maxIntervalMs);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payment.consumer.batch-enabled", havingValue = "false", matchIfMissing = true)
+    public RetryTopicConfiguration orderPlacedRetryTopic() {
+        return retryTopics()
+                .dltHandlerMethod("orderEventConsumer", "handleDeadLetter")
+                .listenerFactory(RECORD_LISTENER_FACTORY)
+                .create(retryTemplate());
+    }
+
+    @Bean(RECORD_LISTENER_FACTORY)
+    @ConditionalOnProperty(name = "payment.consumer.batch-enabled", havingValue = "false", matchIfMissing = true)
+    public ConcurrentKafkaListenerContainerFactory<Object, Object> orderPlacedListenerFactory(
+            ConcurrentKafkaListenerContainerFactoryConfigurer configurer, ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        configurer.configure(factory, consumerFactory);
+        factory.getContainerProperties().setAckMode(AckMode.MANUAL);
+        factory.getContainerProperties().setAsyncAcks(true);
+        return factory;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "payment.consumer.batch-enabled", havingValue = "false", matchIfMissing = true)
+    public OrderPlacedRetryForwarder orderPlacedRetryForwarder() {
+        return new OrderPlacedRetryForwarder(retryTemplate(), firstRetryTopic(), initialIntervalMs);
+    }
+
+    /** Record mode only: in batch mode nothing consumes the retry topics the dead letters would go back to. */
+    @Bean
+    @ConditionalOnProperty(name = "payment.consumer.batch-enabled", havingValue = "false", matchIfMissing = true)
+    public DeadLetterReplayService deadLetterReplayService() {
+        return deadLetterReplayService("payment-service-dlt-replay");
+    }
+
+    /** Picked up by the auto-configured listener container factory. */
+    @Bean
+    @ConditionalOnProperty(name = "payment.consumer.batch-enabled", havingValue = "true")
+    public DefaultErrorHandler batchErrorHandler() {
+        return deadLetteringErrorHandler();
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.paymentservice.controller;
+
+import com.ecommerce.kafka.DeadLetterReplayResponse;
+import com.ecommerce.kafka.DeadLetterReplayService;
+import com.ecommerce.paymentservice.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/payments/dead-letters")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class DeadLetterController {
+
+    private static final int MAX_REPLAY = 10_000;
+
+    /** Absent in batch mode, where the retry topics are not consumed. */
+    private final ObjectProvider<DeadLetterReplayService> deadLetterReplayService;
+
+    @PostMapping("/replay")
+    public ResponseEntity<DeadLetterReplayResponse> replay(@RequestParam(defaultValue = "100") int limit) {
+        if (limit <= 0) {
+            throw new ValidationException("limit must be positive");
+        }
+        DeadLetterReplayService service = deadLetterReplayService.getIfAvailable();
+        if (service == null) {
+            throw new ValidationException(
+                    "Dead-letter replay needs the record listener (payment.consumer.batch-enabled=false)");
+        }
+        return ResponseEntity.ok(service.replay(Math.min(limit, MAX_REPLAY)));
+    }
+}
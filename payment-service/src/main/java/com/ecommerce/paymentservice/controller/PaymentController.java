@@ -1,11 +1,15 @@
 package com.ecommerce.paymentservice.controller;
 
+import com.ecommerce.paymentservice.dto.PaymentPageResponse;
 import com.ecommerce.paymentservice.dto.PaymentResponse;
+import com.ecommerce.paymentservice.entity.Payment.PaymentStatus;
 import com.ecommerce.paymentservice.service.PaymentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,13 +24,30 @@ public class PaymentController {
     }
 
     @GetMapping("/order/{orderId}")
-    public ResponseEntity<List<PaymentResponse>> getPaymentsByOrderId(@PathVariable Long orderId) {
-        return ResponseEntity.ok(paymentService.getPaymentsByOrderId(orderId));
+    public ResponseEntity<List<PaymentResponse>> getPaymentsByOrderId(
+            @PathVariable Long orderId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(paymentService.getPaymentsByOrderId(orderId, from, to));
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<PaymentResponse>> getPaymentsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(paymentService.getPaymentsByUserId(userId));
+    public ResponseEntity<List<PaymentResponse>> getPaymentsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(paymentService.getPaymentsByUserId(userId, from, to));
+    }
+
+    @GetMapping("/user/{userId}/page")
+    public ResponseEntity<PaymentPageResponse> getPaymentPageByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(paymentService.getPaymentPageByUserId(userId, status, from, to, cursor, size));
     }
 
 
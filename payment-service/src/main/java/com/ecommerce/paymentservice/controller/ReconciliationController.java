@@ -0,0 +1,28 @@
+package com.ecommerce.paymentservice.controller;
+
+import com.ecommerce.paymentservice.dto.ReconciliationRequest;
+import com.ecommerce.paymentservice.dto.ReconciliationStatusResponse;
+import com.ecommerce.paymentservice.service.ReconciliationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/payments/reconciliations")
+@PreAuthorize("hasRole('ADMIN')")
+@RequiredArgsConstructor
+public class ReconciliationController {
+    private final ReconciliationService reconciliationService;
+
+    @PostMapping
+    public ResponseEntity<ReconciliationStatusResponse> start(@RequestBody ReconciliationRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(reconciliationService.start(request));
+    }
+
+    @GetMapping("/{runId}")
+    public ResponseEntity<ReconciliationStatusResponse> getStatus(@PathVariable String runId) {
+        return ResponseEntity.ok(reconciliationService.getStatus(runId));
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.paymentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChargeRequest {
+
+    /** Stable per (order, attempt) so a redelivered event cannot charge the customer twice. */
+    private String idempotencyKey;
+    private Long orderId;
+    private Long userId;
+    private BigDecimal amount;
+}
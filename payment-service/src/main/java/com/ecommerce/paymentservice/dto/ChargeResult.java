@@ -0,0 +1,17 @@
+package com.ecommerce.paymentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChargeResult {
+
+    private boolean success;
+    private String processorReference;
+    private String failureReason;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.paymentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentPageResponse {
+
+    private List<PaymentResponse> items;
+    /** Opaque cursor for the next page; null when this is the last page. */
+    private String nextCursor;
+}
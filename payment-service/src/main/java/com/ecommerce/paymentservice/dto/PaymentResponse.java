@@ -16,6 +16,7 @@ public class PaymentResponse {
 
     private Long id;
     private Long orderId;
+    private Integer attempt;
     private Long userId;
     private BigDecimal amount;
     private String status;
@@ -0,0 +1,26 @@
+package com.ecommerce.paymentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/** Published to payment-completed or payment-failed (key = orderId) once a payment has been recorded. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentResultEvent {
+
+    private Long orderId;
+    private Integer attempt;
+    private Long userId;
+    private BigDecimal amount;
+    /** COMPLETED or FAILED. */
+    private String status;
+    private String transactionId;
+    private Instant timestamp;
+}
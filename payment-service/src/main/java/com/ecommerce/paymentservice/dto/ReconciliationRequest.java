@@ -0,0 +1,20 @@
+package com.ecommerce.paymentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationRequest {
+
+    /** Processor settlement CSV, relative to the settlement directory, with columns reference,amount[,status]. */
+    private String settlementFile;
+    /** Optional order totals CSV, relative to the settlement directory, with columns order_id,total_amount. */
+    private String ordersFile;
+    /** Id of an earlier run to resume; its files and id range are reused and completed chunks skipped. */
+    private String runId;
+}
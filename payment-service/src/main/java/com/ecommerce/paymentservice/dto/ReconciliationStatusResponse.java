@@ -0,0 +1,28 @@
+package com.ecommerce.paymentservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationStatusResponse {
+
+    private String runId;
+    /** RUNNING, COMPLETED, FAILED or INTERRUPTED (run directory exists but no run is active for it). */
+    private String state;
+    private long totalChunks;
+    private long completedChunks;
+    private long rowsScanned;
+    private long discrepancies;
+    private double rowsPerSecond;
+    private String reportFile;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String error;
+}
@@ -2,12 +2,19 @@ package com.ecommerce.paymentservice.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments",
+        uniqueConstraints = @UniqueConstraint(name = "uk_payments_order_attempt", columnNames = {"orderId", "attempt"}),
+        indexes = {
+                @Index(name = "idx_payments_transaction_id", columnList = "transactionId"),
+                @Index(name = "idx_payments_user_created", columnList = "userId, createdAt, id"),
+                @Index(name = "idx_payments_user_status_created", columnList = "userId, status, createdAt, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -22,6 +29,12 @@ public class Payment {
     @Column(nullable = false)
     private Long orderId;
 
+    /** Payment attempt number for the order; (orderId, attempt) is unique so redelivered events are no-ops. */
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    @Builder.Default
+    private Integer attempt = 1;
+
     @Column(nullable = false)
     private Long userId;
 
@@ -33,6 +46,8 @@ public class Payment {
     @Builder.Default
     private PaymentStatus status = PaymentStatus.PENDING;
 
+    /** Time-ordered id from {@link com.ecommerce.paymentservice.service.TransactionIdGenerator}, e.g. TXN-01HQ3K5Z8N2PA. */
+    @Column(length = 32)
     private String transactionId;
 
     private LocalDateTime createdAt;
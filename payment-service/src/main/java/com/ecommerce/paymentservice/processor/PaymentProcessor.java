@@ -0,0 +1,15 @@
+package com.ecommerce.paymentservice.processor;
+
+import com.ecommerce.paymentservice.dto.ChargeRequest;
+import com.ecommerce.paymentservice.dto.ChargeResult;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Port to the payment service provider. Implementations must not block the caller: the returned
+ * future completes when the provider answers, so many charges can be in flight at once.
+ */
+public interface PaymentProcessor {
+
+    CompletableFuture<ChargeResult> charge(ChargeRequest request);
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.paymentservice.processor;
+
+import com.ecommerce.paymentservice.dto.ChargeRequest;
+import com.ecommerce.paymentservice.dto.ChargeResult;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for a real provider: answers after a configurable latency and declines a configurable
+ * share of charges. Latency is simulated with a timer, not a sleeping thread, like a non-blocking client.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.processor.type", havingValue = "simulator", matchIfMissing = true)
+public class SimulatedPaymentProcessor implements PaymentProcessor {
+
+    private final ScheduledExecutorService timer = Executors.newScheduledThreadPool(2);
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+
+    public SimulatedPaymentProcessor(@Value("${payment.processor.simulator.latency-ms:50}") long latencyMs,
+                                     @Value("${payment.processor.simulator.jitter-ms:20}") long jitterMs,
+                                     @Value("${payment.processor.simulator.failure-rate:0.0}") double failureRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+        log.info("Using simulated payment processor: latency={}ms jitter={}ms failureRate={}", latencyMs, jitterMs, failureRate);
+    }
+
+    @Override
+    public CompletableFuture<ChargeResult> charge(ChargeRequest request) {
+        CompletableFuture<ChargeResult> result = new CompletableFuture<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        boolean declined = random.nextDouble() < failureRate;
+        timer.schedule(() -> result.complete(declined
+                ? ChargeResult.builder().success(false).failureReason("DECLINED").build()
+                : ChargeResult.builder().success(true).processorReference("SIM-" + UUID.randomUUID()).build()),
+                delay, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.shutdownNow();
+    }
+}
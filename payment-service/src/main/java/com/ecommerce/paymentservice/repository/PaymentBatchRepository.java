@@ -0,0 +1,69 @@
+package com.ecommerce.paymentservice.repository;
+
+import com.ecommerce.paymentservice.entity.Payment;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Bulk writes for payments. JPA cannot batch inserts of IDENTITY-keyed entities, so bulk paths go through here
+ * instead of {@link PaymentRepository#saveAll}. Rows are written with multi-row INSERT statements (what the
+ * driver's reWriteBatchedInserts would produce) so RETURNING can tell which rows were actually new.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO payments (order_id, attempt, user_id, amount, status, transaction_id, created_at) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final String ON_CONFLICT_SQL = " ON CONFLICT DO NOTHING RETURNING order_id, attempt";
+    /** 7 parameters per row keeps a statement well under PostgreSQL's 32767 bind parameter limit. */
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Inserts all payments, discarding those whose (orderId, attempt) already exists.
+     * Returns the payments that were inserted.
+     */
+    public List<Payment> insertAll(List<Payment> payments) {
+        if (payments.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Payment> inserted = new ArrayList<>(payments.size());
+        for (int from = 0; from < payments.size(); from += ROWS_PER_STATEMENT) {
+            List<Payment> chunk = payments.subList(from, Math.min(payments.size(), from + ROWS_PER_STATEMENT));
+            String sql = INSERT_SQL + String.join(", ", Collections.nCopies(chunk.size(), ROW_PLACEHOLDERS)) + ON_CONFLICT_SQL;
+            Object[] args = new Object[chunk.size() * 7];
+            int i = 0;
+            for (Payment payment : chunk) {
+                args[i++] = payment.getOrderId();
+                args[i++] = payment.getAttempt();
+                args[i++] = payment.getUserId();
+                args[i++] = payment.getAmount();
+                args[i++] = payment.getStatus().name();
+                args[i++] = payment.getTransactionId();
+                args[i++] = payment.getCreatedAt() != null ? Timestamp.valueOf(payment.getCreatedAt()) : now;
+            }
+            Set<String> newKeys = new HashSet<>(jdbcTemplate.query(sql,
+                    (rs, rowNum) -> rs.getLong("order_id") + "-" + rs.getInt("attempt"), args));
+            for (Payment payment : chunk) {
+                // remove() so a key repeated within the batch is only reported once
+                if (newKeys.remove(payment.getOrderId() + "-" + payment.getAttempt())) {
+                    inserted.add(payment);
+                }
+            }
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.paymentservice.repository;
+
+import com.ecommerce.paymentservice.entity.Payment;
+import com.ecommerce.paymentservice.entity.Payment.PaymentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination over a user's payments, newest first, ordered by (createdAt, id).
+ * Each page starts right after the previous page's last row, so it costs the same however deep
+ * the user's history goes. Served by the (user_id, created_at, id) and (user_id, status, created_at, id) indexes.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PaymentQueryRepository {
+
+    private final EntityManager entityManager;
+
+    public List<Payment> findUserPage(Long userId, PaymentStatus status, LocalDateTime from, LocalDateTime to,
+                                      LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder("select p from Payment p where p.userId = :userId");
+        if (status != null) {
+            jpql.append(" and p.status = :status");
+        }
+        if (from != null) {
+            jpql.append(" and p.createdAt >= :from");
+        }
+        if (to != null) {
+            jpql.append(" and p.createdAt < :to");
+        }
+        if (afterCreatedAt != null) {
+            jpql.append(" and (p.createdAt < :afterCreatedAt or (p.createdAt = :afterCreatedAt and p.id < :afterId))");
+        }
+        jpql.append(" order by p.createdAt desc, p.id desc");
+
+        TypedQuery<Payment> query = entityManager.createQuery(jpql.toString(), Payment.class)
+                .setParameter("userId", userId)
+                .setMaxResults(limit);
+        if (status != null) {
+            query.setParameter("status", status);
+        }
+        if (from != null) {
+            query.setParameter("from", from);
+        }
+        if (to != null) {
+            query.setParameter("to", to);
+        }
+        if (afterCreatedAt != null) {
+            query.setParameter("afterCreatedAt", afterCreatedAt).setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+}
@@ -1,18 +1,56 @@
 package com.ecommerce.paymentservice.repository;
 
 import com.ecommerce.paymentservice.entity.Payment;
+import com.ecommerce.paymentservice.service.TransactionIdGenerator;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
-    List<Payment> findByOrderId(Long orderId);
+    List<Payment> findByOrderIdAndCreatedAtBetweenOrderByAttempt(Long orderId, LocalDateTime from, LocalDateTime to);
 
-    Optional<Payment> findByTransactionId(String transactionId);
+    /**
+     * Inserts the payment unless one already exists for (orderId, attempt). Returns 1 if inserted, 0 if discarded.
+     * The conflict target is left open so the same statement works when payments is partitioned and uniqueness
+     * is enforced by the payment_order_attempts trigger instead of a unique index.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO payments (order_id, attempt, user_id, amount, status, transaction_id, created_at) " +
+            "VALUES (:orderId, :attempt, :userId, :amount, :status, :transactionId, now()) " +
+            "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("orderId") Long orderId,
+                       @Param("attempt") int attempt,
+                       @Param("userId") Long userId,
+                       @Param("amount") BigDecimal amount,
+                       @Param("status") String status,
+                       @Param("transactionId") String transactionId);
 
-    List<Payment> findByUserId(Long userId);
+    /**
+     * Looks a payment up by transaction id, bounding created_at by the time encoded in the id so that
+     * a partitioned payments table only probes the partitions around it.
+     */
+    default Optional<Payment> findByTransactionId(String transactionId) {
+        Instant issuedAt = TransactionIdGenerator.issuedAt(transactionId);
+        if (issuedAt == null) {
+            return Optional.empty();
+        }
+        // A day either side absorbs charge latency and any JVM/database time zone difference.
+        LocalDateTime around = LocalDateTime.ofInstant(issuedAt, ZoneId.systemDefault());
+        return findFirstByTransactionIdAndCreatedAtBetween(transactionId, around.minusDays(1), around.plusDays(1));
+    }
+
+    Optional<Payment> findFirstByTransactionIdAndCreatedAtBetween(String transactionId, LocalDateTime from, LocalDateTime to);
+
+    List<Payment> findByUserIdAndCreatedAtBetween(Long userId, LocalDateTime from, LocalDateTime to);
 }
@@ -0,0 +1,41 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Batch mode: turns a whole poll of OrderPlacedEvents into payments written in one transaction.
+ * Offsets for the poll are committed only after the listener returns, i.e. after the batch is flushed.
+ * <p>
+ * A record that could not be deserialized arrives as null. The events before it are processed, then the
+ * listener reports the record's index so the error handler commits the prefix, dead-letters the record and
+ * redelivers the rest.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "payment.consumer.batch-enabled", havingValue = "true")
+public class OrderEventBatchConsumer {
+
+    private final PaymentService paymentService;
+
+    @KafkaListener(topics = "order-placed", groupId = "payment-service", batch = "true",
+            properties = "max.poll.records=${payment.consumer.max-poll-records:500}")
+    public void consumeOrderPlacedBatch(List<OrderPlacedEvent> events) {
+        int firstInvalid = events.indexOf(null);
+        List<OrderPlacedEvent> valid = firstInvalid < 0 ? events : events.subList(0, firstInvalid);
+        if (!valid.isEmpty()) {
+            paymentService.processOrderPlacedBatch(valid);
+        }
+        if (firstInvalid >= 0) {
+            throw new BatchListenerFailedException("OrderPlacedEvent could not be deserialized", firstInvalid);
+        }
+    }
+}
@@ -1,31 +1,77 @@
 package com.ecommerce.paymentservice.service;
 
-import com.ecommerce.paymentservice.dto.OrderPlacedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.kafka.KafkaListenerMetrics;
+import com.ecommerce.paymentservice.config.KafkaRetryConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Record mode. Records from order-placed are not waited on: the listener starts the charge and returns, so
+ * up to {@code payment.pipeline.max-in-flight} charges are outstanding at once, and acknowledges each record
+ * once its payment is recorded. The container commits acknowledged offsets in order and polls again only
+ * when the previous poll is fully acknowledged. The listener timer runs until the payment is recorded, not until
+ * the listener returns.
+ * <p>
+ * A record that fails is moved to the retry topics (see {@link KafkaRetryConfig}): thrown exceptions by the
+ * container, failures after the listener returned by {@link OrderPlacedRetryForwarder}. Records from the retry
+ * topics are processed in line, so a failure there moves them on to the next tier.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "payment.consumer.batch-enabled", havingValue = "false", matchIfMissing = true)
 public class OrderEventConsumer {
 
     private final PaymentService paymentService;
-    private final ObjectMapper objectMapper;
+    private final OrderPlacedRetryForwarder retryForwarder;
+    private final KafkaListenerMetrics listenerMetrics;
 
-    @KafkaListener(topics = "order-placed", groupId = "payment-service")
-    public void consumeOrderPlaced(String message) {
-        try {
-            OrderPlacedEvent event = objectMapper.readValue(message, OrderPlacedEvent.class);
-            log.info("Received OrderPlacedEvent: orderId={}", event.getOrderId());
+    @KafkaListener(topics = KafkaRetryConfig.ORDER_PLACED_TOPIC, groupId = "payment-service",
+            containerFactory = KafkaRetryConfig.RECORD_LISTENER_FACTORY)
+    public void consumeOrderPlaced(ConsumerRecord<String, OrderPlacedEvent> record, Acknowledgment ack) {
+        OrderPlacedEvent event = record.value();
+        log.info("Received OrderPlacedEvent: orderId={}", event.getOrderId());
+        if (!KafkaRetryConfig.ORDER_PLACED_TOPIC.equals(record.topic())) {
             paymentService.processOrderPlaced(event);
-        } catch (JsonProcessingException e) {
-            log.error("Failed to parse OrderPlacedEvent: {}", e.getMessage());
-        } catch (Exception e) {
-            log.error("Error processing OrderPlacedEvent: {}", e.getMessage());
+            ack.acknowledge();
+            return;
         }
+        CompletableFuture<Void> processing = paymentService.processOrderPlacedAsync(event);
+        listenerMetrics.timeUntil(record, processing);
+        processing.whenComplete((done, ex) -> {
+            if (ex == null) {
+                ack.acknowledge();
+                return;
+            }
+            log.warn("Payment for orderId={} failed, moving it to the retry topics: {}", event.getOrderId(), ex.toString());
+            retryForwarder.forward(record, ex).whenComplete((sent, sendEx) -> {
+                if (sendEx == null) {
+                    ack.acknowledge();
+                } else {
+                    // Left unacknowledged: offsets stop short of the record and it is redelivered after a restart.
+                    log.error("Could not move orderId={} (offset {}) to the retry topics: {}", event.getOrderId(),
+                            record.offset(), sendEx.getMessage());
+                }
+            });
+        });
+    }
+
+    public void handleDeadLetter(ConsumerRecord<String, OrderPlacedEvent> record, Acknowledgment ack) {
+        Header error = record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE);
+        log.error("OrderPlacedEvent moved to {} (offset {}): orderId={}, error={}", record.topic(), record.offset(),
+                record.value() != null ? record.value().getOrderId() : null,
+                error != null ? new String(error.value(), StandardCharsets.UTF_8) : "unknown");
+        ack.acknowledge();
     }
 }
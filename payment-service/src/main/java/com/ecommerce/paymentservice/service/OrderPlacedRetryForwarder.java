@@ -0,0 +1,52 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.RetryTopicHeaders;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Moves an order-placed record whose processing failed after the listener returned (record mode finishes
+ * payments asynchronously) to the first retry topic. The headers are the ones the retry-topic machinery
+ * writes itself, so the record continues through the same backoff tiers and dead-letter topic as one whose
+ * listener threw.
+ */
+public class OrderPlacedRetryForwarder {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String retryTopic;
+    private final long delayMs;
+
+    public OrderPlacedRetryForwarder(KafkaTemplate<String, Object> kafkaTemplate, String retryTopic, long delayMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.retryTopic = retryTopic;
+        this.delayMs = delayMs;
+    }
+
+    public CompletableFuture<SendResult<String, Object>> forward(ConsumerRecord<String, OrderPlacedEvent> record,
+                                                                 Throwable cause) {
+        RecordHeaders headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("retry_topic-") && !header.key().startsWith("kafka_dlt-")) {
+                headers.add(header);
+            }
+        }
+        headers.add(RetryTopicHeaders.DEFAULT_HEADER_ATTEMPTS, ByteBuffer.allocate(Integer.BYTES).putInt(2).array());
+        headers.add(RetryTopicHeaders.DEFAULT_HEADER_BACKOFF_TIMESTAMP,
+                BigInteger.valueOf(System.currentTimeMillis() + delayMs).toByteArray());
+        headers.add(KafkaHeaders.DLT_EXCEPTION_FQCN, cause.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        headers.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE,
+                String.valueOf(cause.getMessage()).getBytes(StandardCharsets.UTF_8));
+        return kafkaTemplate.send(new ProducerRecord<>(retryTopic, null, record.key(), record.value(), headers));
+    }
+}
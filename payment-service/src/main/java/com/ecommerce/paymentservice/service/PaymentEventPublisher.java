@@ -0,0 +1,100 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.paymentservice.dto.PaymentResultEvent;
+import com.ecommerce.paymentservice.entity.Payment;
+import com.ecommerce.paymentservice.entity.Payment.PaymentStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes payment outcomes to payment-completed / payment-failed, keyed by orderId, so within each topic an
+ * order's events land on one partition in order. The two topics are not ordered relative to each other: a consumer
+ * of both cannot tell from arrival order whether a failed attempt preceded a completed one and should compare
+ * {@code attempt} instead. Sends are asynchronous and batched by the producer (see
+ * spring.kafka.producer); the callback records send latency in {@code payments.events.send}, tagged by
+ * topic and result.
+ */
+@Slf4j
+@Component
+public class PaymentEventPublisher {
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final String completedTopic;
+    private final String failedTopic;
+    private final boolean enabled;
+
+    public PaymentEventPublisher(KafkaTemplate<String, String> kafkaTemplate,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${payment.events.completed-topic:payment-completed}") String completedTopic,
+                                 @Value("${payment.events.failed-topic:payment-failed}") String failedTopic,
+                                 @Value("${payment.events.publish-enabled:true}") boolean enabled) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.completedTopic = completedTopic;
+        this.failedTopic = failedTopic;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Publishes one event per settled payment; PENDING ones (charge outcome unknown) are skipped. Call only
+     * after the payments have been committed.
+     */
+    public void publish(List<Payment> payments) {
+        if (!enabled) {
+            return;
+        }
+        Instant now = Instant.now();
+        for (Payment payment : payments) {
+            if (payment.getStatus() == PaymentStatus.PENDING) {
+                continue;
+            }
+            String topic = payment.getStatus() == PaymentStatus.COMPLETED ? completedTopic : failedTopic;
+            PaymentResultEvent event = PaymentResultEvent.builder()
+                    .orderId(payment.getOrderId())
+                    .attempt(payment.getAttempt())
+                    .userId(payment.getUserId())
+                    .amount(payment.getAmount())
+                    .status(payment.getStatus().name())
+                    .transactionId(payment.getTransactionId())
+                    .timestamp(now)
+                    .build();
+            String message;
+            try {
+                message = objectMapper.writeValueAsString(event);
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize PaymentResultEvent for orderId={}: {}", payment.getOrderId(), e.getMessage());
+                continue;
+            }
+            long start = System.nanoTime();
+            kafkaTemplate.send(topic, String.valueOf(payment.getOrderId()), message)
+                    .whenComplete((result, ex) -> {
+                        sendTimer(topic, ex == null ? "success" : "failure").record(System.nanoTime() - start,
+                                TimeUnit.NANOSECONDS);
+                        if (ex != null) {
+                            log.error("Failed to publish {} event for orderId={}: {}", topic, payment.getOrderId(), ex.getMessage());
+                        }
+                    });
+        }
+    }
+
+    private Timer sendTimer(String topic, String result) {
+        return Timer.builder("payments.events.send")
+                .tag("topic", topic)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
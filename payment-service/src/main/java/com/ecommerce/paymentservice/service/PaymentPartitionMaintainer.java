@@ -0,0 +1,239 @@
+package com.ecommerce.paymentservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSetMetaData;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the monthly partitions of a partitioned {@code payments} table (see {@code db/payments-partitioned.sql})
+ * in shape: creates the current and upcoming months ahead of time, and detaches partitions older than the
+ * retention window, archives their rows to {@code <archive-dir>/<partition>.csv.gz} and drops them.
+ * <p>
+ * Detaching happens in a short transaction of its own so inserts are only blocked briefly; archiving then reads
+ * the detached table. A partition is dropped only after its archive file has been written, so a failed run
+ * leaves the detached table to be picked up again next time. Its (order_id, attempt) keys are deleted from
+ * {@code payment_order_attempts} in the same transaction as the drop, so that table stays as small as the
+ * retained payments instead of growing forever. Advisory locks keep instances from doing the same
+ * work twice.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.partitions.enabled", havingValue = "true")
+public class PaymentPartitionMaintainer {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("payments_p(\\d{4})_(\\d{2})");
+    private static final long MAINTENANCE_LOCK = 0x7061796d656e7473L; // "payments"
+    private static final int ARCHIVE_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate archiveJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int premakeMonths;
+    private final int retentionMonths;
+    private final Path archiveDir;
+
+    public PaymentPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      @Value("${payment.partitions.premake-months:3}") int premakeMonths,
+                                      @Value("${payment.partitions.retention-months:12}") int retentionMonths,
+                                      @Value("${payment.partitions.archive-dir:archive}") String archiveDir) {
+        if (retentionMonths < 1) {
+            throw new IllegalArgumentException("payment.partitions.retention-months must be at least 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.archiveJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        this.archiveJdbcTemplate.setFetchSize(ARCHIVE_FETCH_SIZE);
+        this.transactionTemplate = transactionTemplate;
+        this.premakeMonths = premakeMonths;
+        this.retentionMonths = retentionMonths;
+        this.archiveDir = Path.of(archiveDir);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${payment.partitions.cron:0 15 2 * * *}")
+    public void maintain() {
+        try {
+            if (!isPartitioned()) {
+                log.warn("payment.partitions.enabled is set but payments is not a partitioned table; run db/payments-partitioned.sql first");
+                return;
+            }
+            YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+            Boolean locked = transactionTemplate.execute(status -> {
+                if (!tryAdvisoryLock(MAINTENANCE_LOCK)) {
+                    return false;
+                }
+                createUpcomingPartitions();
+                detachExpiredPartitions(oldestKept);
+                return true;
+            });
+            if (!Boolean.TRUE.equals(locked)) {
+                log.debug("Partition maintenance already running on another instance");
+                return;
+            }
+            for (String table : detachedPartitions()) {
+                YearMonth month = monthOf(table);
+                if (month != null && month.isBefore(oldestKept)) {
+                    archiveAndDrop(table);
+                }
+            }
+        } catch (DataAccessException | UncheckedIOException e) {
+            log.error("Payment partition maintenance failed: {}", e.getMessage(), e);
+        }
+    }
+
+    private void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= premakeMonths; i++) {
+            YearMonth month = current.plusMonths(i);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF payments " +
+                    "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+        }
+    }
+
+    private void detachExpiredPartitions(YearMonth oldestKept) {
+        for (String table : attachedPartitions()) {
+            YearMonth month = monthOf(table);
+            if (month != null && month.isBefore(oldestKept)) {
+                jdbcTemplate.execute("ALTER TABLE payments DETACH PARTITION " + table);
+                log.info("Detached payment partition {}", table);
+            }
+        }
+    }
+
+    private void archiveAndDrop(String table) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!tryAdvisoryLock(MAINTENANCE_LOCK + table.hashCode())) {
+                return;
+            }
+            long rows = archive(table);
+            int keys = jdbcTemplate.update("DELETE FROM payment_order_attempts a USING " + table + " p " +
+                    "WHERE a.order_id = p.order_id AND a.attempt = p.attempt");
+            jdbcTemplate.execute("DROP TABLE " + table);
+            log.info("Archived {} rows of {} to {}, pruned {} attempt keys and dropped the partition", rows, table,
+                    archiveFile(table), keys);
+        });
+    }
+
+    /** Streams the table to a gzip CSV, writing to a temp file first so a partial archive is never mistaken for a complete one. */
+    private long archive(String table) {
+        Path target = archiveFile(table);
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(archiveDir);
+            Long rows;
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+                rows = archiveJdbcTemplate.query("SELECT * FROM " + table + " ORDER BY id",
+                        (ResultSetExtractor<Long>) rs -> {
+                            ResultSetMetaData meta = rs.getMetaData();
+                            int columns = meta.getColumnCount();
+                            long count = 0;
+                            try {
+                                for (int c = 1; c <= columns; c++) {
+                                    writeField(out, meta.getColumnName(c), c == columns);
+                                }
+                                while (rs.next()) {
+                                    for (int c = 1; c <= columns; c++) {
+                                        writeField(out, rs.getString(c), c == columns);
+                                    }
+                                    count++;
+                                }
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                            return count;
+                        });
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return rows != null ? rows : 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive " + table, e);
+        }
+    }
+
+    private static void writeField(Writer out, String value, boolean last) throws IOException {
+        if (value != null) {
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+        out.write(last ? '\n' : ',');
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid " +
+                        "WHERE c.relname = 'payments' AND pg_table_is_visible(c.oid)", Integer.class);
+        return count != null && count > 0;
+    }
+
+    private boolean tryAdvisoryLock(long key) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, key));
+    }
+
+    private List<String> attachedPartitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                        "JOIN pg_class p ON p.oid = i.inhparent " +
+                        "WHERE p.relname = 'payments' AND pg_table_is_visible(p.oid)", String.class);
+    }
+
+    private List<String> detachedPartitions() {
+        Set<String> attached = new HashSet<>(attachedPartitions());
+        return jdbcTemplate.queryForList(
+                        "SELECT relname FROM pg_class WHERE relkind = 'r' AND relname ~ '^payments_p[0-9]{4}_[0-9]{2}$' " +
+                                "AND pg_table_is_visible(oid) ORDER BY relname", String.class)
+                .stream()
+                .filter(table -> !attached.contains(table))
+                .toList();
+    }
+
+    private Path archiveFile(String table) {
+        return archiveDir.resolve(table + ".csv.gz");
+    }
+
+    private static String partitionName(YearMonth month) {
+        return "payments_p" + month.format(SUFFIX);
+    }
+
+    private static YearMonth monthOf(String table) {
+        Matcher m = PARTITION_NAME.matcher(table);
+        return m.matches() ? YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))) : null;
+    }
+}
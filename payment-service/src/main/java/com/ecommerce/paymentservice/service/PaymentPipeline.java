@@ -0,0 +1,93 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.paymentservice.dto.ChargeRequest;
+import com.ecommerce.paymentservice.dto.ChargeResult;
+import com.ecommerce.paymentservice.entity.Payment;
+import com.ecommerce.paymentservice.entity.Payment.PaymentStatus;
+import com.ecommerce.paymentservice.processor.PaymentProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Charges payments through the {@link PaymentProcessor} with many charges in flight at once.
+ * <p>
+ * A semaphore caps in-flight charges per instance; when it is exhausted the submitting (listener)
+ * thread waits, which stops the consumer from polling more records. A permit is held until the
+ * processor's own future completes, so a charge that outlives {@code charge-timeout-ms} still counts
+ * against the cap; processors are expected to bound their calls with a transport timeout.
+ * <p>
+ * A declined charge is FAILED. A charge that times out or errors has an unknown outcome (the provider
+ * may still have taken the money), so the payment stays PENDING: it is recorded but not announced,
+ * and reconciliation against the settlement file settles it.
+ */
+@Slf4j
+@Component
+public class PaymentPipeline {
+
+    private final PaymentProcessor paymentProcessor;
+    private final Semaphore inFlight;
+    private final long chargeTimeoutMs;
+
+    public PaymentPipeline(PaymentProcessor paymentProcessor,
+                           @Value("${payment.pipeline.max-in-flight:256}") int maxInFlight,
+                           @Value("${payment.pipeline.charge-timeout-ms:10000}") long chargeTimeoutMs) {
+        this.paymentProcessor = paymentProcessor;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.chargeTimeoutMs = chargeTimeoutMs;
+    }
+
+    /** Charges every payment and sets its status. Blocks until all charges have an outcome. */
+    public void chargeAll(List<Payment> payments) {
+        CompletableFuture.allOf(payments.stream().map(this::charge).toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Starts one charge, waiting first if max-in-flight charges are outstanding. The returned future
+     * completes with the payment once its status is COMPLETED, FAILED or (outcome unknown) PENDING; it
+     * never completes exceptionally.
+     */
+    public CompletableFuture<Payment> charge(Payment payment) {
+        inFlight.acquireUninterruptibly();
+        CompletableFuture<ChargeResult> charge;
+        try {
+            charge = paymentProcessor.charge(toRequest(payment));
+        } catch (RuntimeException e) {
+            charge = CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<ChargeResult> released = charge.whenComplete((result, ex) -> inFlight.release());
+        // Time out a copy: a stage completed early by orTimeout skips its own whenComplete action, so timing out
+        // the release stage would leak the permit. Following the release stage, answered charges hand their permit
+        // back before the caller sees the outcome.
+        return released.copy()
+                .orTimeout(chargeTimeoutMs, TimeUnit.MILLISECONDS)
+                .handle((result, ex) -> {
+                    if (ex != null) {
+                        log.warn("Charge outcome unknown for orderId={}, left PENDING: {}", payment.getOrderId(), ex.toString());
+                        payment.setStatus(PaymentStatus.PENDING);
+                    } else {
+                        payment.setStatus(result.isSuccess() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED);
+                    }
+                    return payment;
+                });
+    }
+
+    /** Permits currently free; for tests and diagnostics. */
+    int availablePermits() {
+        return inFlight.availablePermits();
+    }
+
+    private static ChargeRequest toRequest(Payment payment) {
+        return ChargeRequest.builder()
+                .idempotencyKey(payment.getOrderId() + "-" + payment.getAttempt())
+                .orderId(payment.getOrderId())
+                .userId(payment.getUserId())
+                .amount(payment.getAmount())
+                .build();
+    }
+}
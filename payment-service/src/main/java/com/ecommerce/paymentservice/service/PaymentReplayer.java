@@ -0,0 +1,44 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.kafka.OrderPlacedReplayer;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays order-placed history through {@link PaymentService#recordUnchargedPayments} to rebuild payment state
+ * ({@code payment.replay.*}, see {@link OrderPlacedReplayer}).
+ * <p>
+ * Nothing is charged: payments already recorded are skipped by the insert, and missing ones are recorded PENDING
+ * for reconciliation to match against the processor's settlement file. No payment result events are published.
+ * A slice is recorded in one transaction, so it is applied whole or not at all.
+ */
+@Component
+@Profile("replay")
+public class PaymentReplayer extends OrderPlacedReplayer {
+
+    private final PaymentService paymentService;
+    private final AtomicLong recorded = new AtomicLong();
+
+    public PaymentReplayer(KafkaProperties kafkaProperties, ConfigurableApplicationContext context,
+                           PaymentService paymentService) {
+        super(kafkaProperties, context, "payment.replay", "payment-service-replay");
+        this.paymentService = paymentService;
+    }
+
+    @Override
+    protected int apply(List<OrderPlacedEvent> events) {
+        recorded.addAndGet(paymentService.recordUnchargedPayments(events));
+        return events.size();
+    }
+
+    @Override
+    protected String reportDetail() {
+        return " (" + recorded.get() + " payments recorded PENDING)";
+    }
+}
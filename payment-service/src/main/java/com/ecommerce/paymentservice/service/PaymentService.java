@@ -1,42 +1,149 @@
 package com.ecommerce.paymentservice.service;
 
-import com.ecommerce.paymentservice.dto.OrderPlacedEvent;
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.paymentservice.dto.PaymentPageResponse;
 import com.ecommerce.paymentservice.dto.PaymentResponse;
 import com.ecommerce.paymentservice.entity.Payment;
 import com.ecommerce.paymentservice.entity.Payment.PaymentStatus;
 import com.ecommerce.paymentservice.exception.ResourceNotFoundException;
+import com.ecommerce.paymentservice.exception.ValidationException;
+import com.ecommerce.paymentservice.repository.PaymentBatchRepository;
+import com.ecommerce.paymentservice.repository.PaymentQueryRepository;
 import com.ecommerce.paymentservice.repository.PaymentRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class PaymentService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    /** Lower bound of an open-ended window on an unpartitioned table; no payment predates it. */
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
     private final PaymentRepository paymentRepository;
+    private final PaymentBatchRepository paymentBatchRepository;
+    private final PaymentQueryRepository paymentQueryRepository;
+    private final PaymentPipeline paymentPipeline;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final PaymentEventPublisher paymentEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter singlePersisted;
+    private final Counter batchPersisted;
+    /** Records charged payments off the processor's callback threads, which must not block on JDBC. */
+    private final ExecutorService recordExecutor;
+    private final int defaultLookbackDays;
+    private final boolean partitioned;
 
-    @Transactional    //explain @Transactional is a Spring annotation that indicates that the annotated method
-    // should be executed within a transactional context. This means that all operations performed within the method
-    // will be part of a single transaction. If any operation fails (e.g., an exception is thrown), the entire transaction
-    // will be rolled back, ensuring data integrity. In the context of the processOrderPlaced method,
-    // it ensures that if saving the payment fails for any reason, any changes made to the database during that method execution
-    // will be undone, preventing partial updates and maintaining consistency in the payment records.
+    public PaymentService(PaymentRepository paymentRepository,
+                          PaymentBatchRepository paymentBatchRepository,
+                          PaymentQueryRepository paymentQueryRepository,
+                          PaymentPipeline paymentPipeline,
+                          TransactionIdGenerator transactionIdGenerator,
+                          PaymentEventPublisher paymentEventPublisher,
+                          TransactionTemplate transactionTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${payment.pipeline.record-threads:4}") int recordThreads,
+                          @Value("${payment.queries.default-lookback-days:90}") int defaultLookbackDays,
+                          @Value("${payment.partitions.enabled:false}") boolean partitioned) {
+        this.paymentRepository = paymentRepository;
+        this.paymentBatchRepository = paymentBatchRepository;
+        this.paymentQueryRepository = paymentQueryRepository;
+        this.paymentPipeline = paymentPipeline;
+        this.transactionIdGenerator = transactionIdGenerator;
+        this.paymentEventPublisher = paymentEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.singlePersisted = Counter.builder("payments.persisted").tag("mode", "single").register(meterRegistry);
+        this.batchPersisted = Counter.builder("payments.persisted").tag("mode", "batch").register(meterRegistry);
+        this.recordExecutor = Executors.newFixedThreadPool(recordThreads, r -> new Thread(r, "payment-record"));
+        this.defaultLookbackDays = defaultLookbackDays;
+        this.partitioned = partitioned;
+    }
 
+    @PreDestroy
+    public void shutdown() {
+        recordExecutor.shutdown();
+    }
+
+    /**
+     * Charges the payment through the processor, then records it and publishes the outcome. The charge
+     * runs outside the transaction so no connection is held while waiting on the provider.
+     */
     public void processOrderPlaced(OrderPlacedEvent event) {
-        Payment payment = Payment.builder()
-                .orderId(event.getOrderId())
-                .userId(event.getUserId())
-                .amount(BigDecimal.valueOf(event.getTotalAmount()))
-                .status(PaymentStatus.COMPLETED)
-                .transactionId("TXN-" + UUID.randomUUID())
-                .build();
-        paymentRepository.save(payment);
+        Payment payment = toPayment(event);
+        paymentPipeline.chargeAll(List.of(payment));
+        record(payment);
+    }
+
+    /**
+     * Like {@link #processOrderPlaced} but returns once the charge is started, so a listener thread can keep
+     * many charges in flight. The future completes when the payment is recorded and published, or with the
+     * recording error.
+     */
+    public CompletableFuture<Void> processOrderPlacedAsync(OrderPlacedEvent event) {
+        Payment payment = toPayment(event);
+        return paymentPipeline.charge(payment).thenAcceptAsync(this::record, recordExecutor);
+    }
+
+    private void record(Payment payment) {
+        Integer inserted = transactionTemplate.execute(status -> paymentRepository.insertIfAbsent(
+                payment.getOrderId(), payment.getAttempt(), payment.getUserId(),
+                payment.getAmount(), payment.getStatus().name(), payment.getTransactionId()));
+        if (inserted == null || inserted == 0) {
+            log.debug("Payment for orderId={} already exists, discarded duplicate event", payment.getOrderId());
+            return;
+        }
+        singlePersisted.increment();
+        paymentEventPublisher.publish(List.of(payment));
+    }
+
+    /**
+     * Charges a whole poll of events concurrently through the pipeline, then writes the payments
+     * with multi-row inserts in a single transaction and publishes the outcomes of the new ones.
+     */
+    public void processOrderPlacedBatch(List<OrderPlacedEvent> events) {
+        long start = System.nanoTime();
+        List<Payment> payments = events.stream()
+                .map(this::toPayment)
+                .collect(Collectors.toList());
+        paymentPipeline.chargeAll(payments);
+        List<Payment> inserted = transactionTemplate.execute(status -> paymentBatchRepository.insertAll(payments));
+        if (inserted != null) {
+            batchPersisted.increment(inserted.size());
+            paymentEventPublisher.publish(inserted);
+        }
+        long elapsedMicros = Math.max(1, (System.nanoTime() - start) / 1_000);
+        log.debug("Processed {} payments in {} us ({} payments/sec)",
+                payments.size(), elapsedMicros, payments.size() * 1_000_000L / elapsedMicros);
+    }
+
+    /**
+     * Replay path: records a PENDING payment for each event that has none yet, without charging and without
+     * publishing. Whether the original charge went through is known only to the processor, so these payments are
+     * left for reconciliation against its settlement file. Returns how many were recorded.
+     */
+    public int recordUnchargedPayments(List<OrderPlacedEvent> events) {
+        List<Payment> payments = events.stream()
+                .map(this::toPayment)
+                .collect(Collectors.toList());
+        List<Payment> inserted = transactionTemplate.execute(status -> paymentBatchRepository.insertAll(payments));
+        return inserted != null ? inserted.size() : 0;
     }
 
     public PaymentResponse getPaymentById(Long id) {
@@ -45,22 +152,94 @@ public class PaymentService {
         return mapToResponse(payment);
     }
 
-    public List<PaymentResponse> getPaymentsByOrderId(Long orderId) {
-        return paymentRepository.findByOrderId(orderId).stream()
+    /**
+     * Payments of an order created in [from, to); either bound may be omitted. When payments is partitioned, a
+     * missing {@code from} means the last {@code payment.queries.default-lookback-days} so only recent partitions
+     * are scanned; otherwise the list is unbounded, as before. The same applies to {@link #getPaymentsByUserId}.
+     */
+    public List<PaymentResponse> getPaymentsByOrderId(Long orderId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime[] window = window(from, to);
+        return paymentRepository.findByOrderIdAndCreatedAtBetweenOrderByAttempt(orderId, window[0], window[1]).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
-    public List<PaymentResponse> getPaymentsByUserId(Long userId) {
-        return paymentRepository.findByUserId(userId).stream()
+    public List<PaymentResponse> getPaymentsByUserId(Long userId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime[] window = window(from, to);
+        return paymentRepository.findByUserIdAndCreatedAtBetween(userId, window[0], window[1]).stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Fills in missing bounds: {@code to} defaults to a day from now (clock skew), {@code from} to the lookback
+     * before it on a partitioned table and to the beginning of time otherwise.
+     */
+    private LocalDateTime[] window(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now().plusDays(1);
+        LocalDateTime start = from != null ? from : partitioned ? end.minusDays(defaultLookbackDays) : EARLIEST;
+        if (!start.isBefore(end)) {
+            throw new ValidationException("from must be before to");
+        }
+        return new LocalDateTime[]{start, end};
+    }
+
+    /** One page of a user's payments, newest first. Pass the previous page's nextCursor to continue. */
+    public PaymentPageResponse getPaymentPageByUserId(Long userId, PaymentStatus status, LocalDateTime from,
+                                                      LocalDateTime to, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Payment after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor) : null;
+        // Fetch one extra row to know whether another page follows.
+        List<Payment> rows = paymentQueryRepository.findUserPage(userId, status, from, to,
+                after != null ? after.getCreatedAt() : null, after != null ? after.getId() : null, size + 1);
+        boolean hasMore = rows.size() > size;
+        List<Payment> page = hasMore ? rows.subList(0, size) : rows;
+        Payment last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return PaymentPageResponse.builder()
+                .items(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(last) : null)
+                .build();
+    }
+
+    private static String encodeCursor(Payment payment) {
+        String raw = payment.getCreatedAt() + "|" + payment.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a cursor into the (createdAt, id) position of the last row of the previous page. */
+    private static Payment decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (parts.length != 2) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return Payment.builder()
+                    .createdAt(LocalDateTime.parse(parts[0]))
+                    .id(Long.parseLong(parts[1]))
+                    .build();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    private Payment toPayment(OrderPlacedEvent event) {
+        return Payment.builder()
+                .orderId(event.getOrderId())
+                .attempt(1)
+                .userId(event.getUserId())
+                .amount(BigDecimal.valueOf(event.getTotalAmount()))
+                .status(PaymentStatus.PENDING)
+                .transactionId(transactionIdGenerator.nextTransactionId())
+                .build();
+    }
+
     private PaymentResponse mapToResponse(Payment payment) {
         return PaymentResponse.builder()
                 .id(payment.getId())
                 .orderId(payment.getOrderId())
+                .attempt(payment.getAttempt())
                 .userId(payment.getUserId())
                 .amount(payment.getAmount())
                 .status(payment.getStatus().name())
@@ -0,0 +1,477 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.paymentservice.dto.ReconciliationRequest;
+import com.ecommerce.paymentservice.dto.ReconciliationStatusResponse;
+import com.ecommerce.paymentservice.exception.ResourceNotFoundException;
+import com.ecommerce.paymentservice.exception.ValidationException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Reconciles payments against a processor settlement file and, optionally, order totals.
+ * <p>
+ * Payments are read in fixed-size id ranges with plain, lock-free selects, and chunks run in parallel on a
+ * worker pool. Each finished chunk writes its discrepancies to {@code <work-dir>/<runId>/chunks/<n>.csv}; that
+ * file doubles as the chunk's checkpoint, so resuming a run skips every chunk that already has one. The id range
+ * is fixed when a run is first started and kept in {@code run.properties}. Once all chunks are done the parts
+ * are merged, together with settlement lines that match no payment, into {@code report.csv}.
+ * <p>
+ * Settlement lines are matched on the reference sent to the processor, {@code <orderId>-<attempt>}. The
+ * settlement and order files are named relative to {@code payment.reconciliation.settlement-dir} and must resolve
+ * inside it; they are held in memory for the duration of the run.
+ */
+@Slf4j
+@Service
+public class ReconciliationService {
+
+    private static final String REPORT_HEADER = "type,payment_id,order_id,reference,expected,actual";
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+    private final int workers;
+    private final Path workDir;
+    private final Path settlementDir;
+    private final ExecutorService launcher = Executors.newSingleThreadExecutor(r -> new Thread(r, "reconciliation"));
+    private final Map<String, Run> runs = new ConcurrentHashMap<>();
+
+    public ReconciliationService(JdbcTemplate jdbcTemplate,
+                                 @Value("${payment.reconciliation.chunk-size:10000}") int chunkSize,
+                                 @Value("${payment.reconciliation.workers:4}") int workers,
+                                 @Value("${payment.reconciliation.work-dir:reconciliation}") String workDir,
+                                 @Value("${payment.reconciliation.settlement-dir:settlements}") String settlementDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.workers = Math.max(1, workers);
+        this.workDir = Path.of(workDir);
+        this.settlementDir = Path.of(settlementDir).toAbsolutePath().normalize();
+    }
+
+    /** Queues a new run, or a resumed one when {@code runId} is set. Runs execute one at a time. */
+    public ReconciliationStatusResponse start(ReconciliationRequest request) {
+        Run run = request.getRunId() != null ? resumeRun(request.getRunId()) : newRun(request);
+        runs.compute(run.id, (id, previous) -> {
+            if (previous != null && "RUNNING".equals(previous.state)) {
+                throw new ValidationException("Reconciliation " + id + " is already running");
+            }
+            return run;
+        });
+        launcher.submit(() -> execute(run));
+        return run.toStatus();
+    }
+
+    public ReconciliationStatusResponse getStatus(String runId) {
+        Run run = runs.get(runId);
+        if (run != null) {
+            return run.toStatus();
+        }
+        Path dir = runDir(runId);
+        if (!Files.isDirectory(dir)) {
+            throw new ResourceNotFoundException("Reconciliation not found: " + runId);
+        }
+        Path report = dir.resolve("report.csv");
+        return ReconciliationStatusResponse.builder()
+                .runId(runId)
+                .state(Files.exists(report) ? "COMPLETED" : "INTERRUPTED")
+                .reportFile(Files.exists(report) ? report.toString() : null)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        launcher.shutdownNow();
+    }
+
+    private Run newRun(ReconciliationRequest request) {
+        Path settlement = existingFile(request.getSettlementFile(), "settlementFile");
+        Path orders = request.getOrdersFile() != null ? existingFile(request.getOrdersFile(), "ordersFile") : null;
+        Long minId = jdbcTemplate.queryForObject("SELECT min(id) FROM payments", Long.class);
+        Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM payments", Long.class);
+        Run run = new Run(UUID.randomUUID().toString(), settlement, orders,
+                minId != null ? minId : 1, maxId != null ? maxId : 0, chunkSize);
+        Properties props = new Properties();
+        props.setProperty("settlementFile", settlement.toString());
+        if (orders != null) {
+            props.setProperty("ordersFile", orders.toString());
+        }
+        props.setProperty("minId", Long.toString(run.minId));
+        props.setProperty("maxId", Long.toString(run.maxId));
+        props.setProperty("chunkSize", Long.toString(run.chunkSize));
+        try {
+            Files.createDirectories(run.chunkDir());
+            try (Writer out = Files.newBufferedWriter(runDir(run.id).resolve("run.properties"))) {
+                props.store(out, "payment reconciliation");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create reconciliation run directory", e);
+        }
+        return run;
+    }
+
+    private Run resumeRun(String runId) {
+        Path propsFile = runDir(runId).resolve("run.properties");
+        if (!Files.exists(propsFile)) {
+            throw new ResourceNotFoundException("Reconciliation not found: " + runId);
+        }
+        Properties props = new Properties();
+        try (BufferedReader in = Files.newBufferedReader(propsFile)) {
+            props.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + propsFile, e);
+        }
+        String orders = props.getProperty("ordersFile");
+        return new Run(runId,
+                Path.of(props.getProperty("settlementFile")),
+                orders != null ? Path.of(orders) : null,
+                Long.parseLong(props.getProperty("minId")),
+                Long.parseLong(props.getProperty("maxId")),
+                Integer.parseInt(props.getProperty("chunkSize")));
+    }
+
+    private void execute(Run run) {
+        ExecutorService pool = Executors.newFixedThreadPool(workers, r -> new Thread(r, "reconciliation-worker"));
+        try {
+            Map<String, Settlement> settlements = readSettlements(run.settlementFile);
+            Map<Long, BigDecimal> orderTotals = run.ordersFile != null ? readOrderTotals(run.ordersFile) : null;
+            Set<String> matched = ConcurrentHashMap.newKeySet();
+
+            List<Future<?>> pending = new ArrayList<>();
+            for (long chunk = 0; chunk < run.totalChunks; chunk++) {
+                if (Files.exists(run.chunkFile(chunk))) {
+                    run.completedChunks.incrementAndGet();
+                    continue;
+                }
+                long index = chunk;
+                pending.add(pool.submit(() -> reconcileChunk(run, index, settlements, orderTotals, matched)));
+            }
+            for (Future<?> future : pending) {
+                future.get();
+            }
+
+            List<Discrepancy> unmatched = unmatchedSettlements(settlements, matched);
+            run.discrepancies.addAndGet(unmatched.size());
+            writeReport(run, unmatched);
+
+            run.finishedAt = Instant.now();
+            run.state = "COMPLETED";
+            log.info("Reconciliation {} finished: {} rows in {} chunks, {} discrepancies, {} rows/sec",
+                    run.id, run.rowsScanned.get(), run.totalChunks, run.discrepancies.get(),
+                    String.format("%.0f", run.rowsPerSecond()));
+        } catch (Exception e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            run.finishedAt = Instant.now();
+            run.error = cause.getMessage();
+            run.state = "FAILED";
+            log.error("Reconciliation {} failed after {} chunks", run.id, run.completedChunks.get(), cause);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void reconcileChunk(Run run, long chunk, Map<String, Settlement> settlements,
+                                Map<Long, BigDecimal> orderTotals, Set<String> matched) {
+        long from = run.minId + chunk * run.chunkSize;
+        long to = Math.min(run.maxId, from + run.chunkSize - 1);
+        List<Discrepancy> found = new ArrayList<>();
+        AtomicLong rows = new AtomicLong();
+        jdbcTemplate.query("SELECT id, order_id, attempt, amount, status FROM payments WHERE id BETWEEN ? AND ? ORDER BY id",
+                rs -> {
+                    rows.incrementAndGet();
+                    long paymentId = rs.getLong("id");
+                    long orderId = rs.getLong("order_id");
+                    String reference = orderId + "-" + rs.getInt("attempt");
+                    BigDecimal amount = rs.getBigDecimal("amount");
+                    boolean completed = "COMPLETED".equals(rs.getString("status"));
+
+                    Settlement settlement = settlements.get(reference);
+                    if (settlement != null) {
+                        matched.add(reference);
+                    }
+                    if (completed && settlement == null) {
+                        found.add(new Discrepancy("MISSING_SETTLEMENT", paymentId, orderId, reference, amount.toPlainString(), ""));
+                    } else if (completed && settlement.amount().compareTo(amount) != 0) {
+                        found.add(new Discrepancy("AMOUNT_MISMATCH", paymentId, orderId, reference,
+                                amount.toPlainString(), settlement.amount().toPlainString()));
+                    } else if (settlement != null && completed != settlement.settled()) {
+                        found.add(new Discrepancy("STATUS_MISMATCH", paymentId, orderId, reference,
+                                rs.getString("status"), settlement.status()));
+                    }
+
+                    if (orderTotals != null) {
+                        BigDecimal total = orderTotals.get(orderId);
+                        if (total == null) {
+                            found.add(new Discrepancy("UNKNOWN_ORDER", paymentId, orderId, reference, "", amount.toPlainString()));
+                        } else if (total.compareTo(amount) != 0) {
+                            found.add(new Discrepancy("ORDER_TOTAL_MISMATCH", paymentId, orderId, reference,
+                                    total.toPlainString(), amount.toPlainString()));
+                        }
+                    }
+                }, from, to);
+
+        writeAtomically(run.chunkFile(chunk), out -> found.forEach(d -> writeLine(out, d)));
+        run.rowsScanned.addAndGet(rows.get());
+        run.discrepancies.addAndGet(found.size());
+        run.completedChunks.incrementAndGet();
+    }
+
+    /**
+     * Settlement lines not matched by any chunk of this run. On a resumed run chunks completed earlier did not
+     * record their matches, so candidates are looked up in the database before being reported.
+     */
+    private List<Discrepancy> unmatchedSettlements(Map<String, Settlement> settlements, Set<String> matched) {
+        List<String> candidates = settlements.keySet().stream()
+                .filter(reference -> !matched.contains(reference))
+                .collect(Collectors.toList());
+        List<Discrepancy> unmatched = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i += LOOKUP_BATCH_SIZE) {
+            List<String> batch = candidates.subList(i, Math.min(candidates.size(), i + LOOKUP_BATCH_SIZE));
+            Set<Long> orderIds = batch.stream().map(ReconciliationService::orderIdOf)
+                    .filter(id -> id != null).collect(Collectors.toSet());
+            Set<String> existing = new HashSet<>();
+            if (!orderIds.isEmpty()) {
+                String placeholders = orderIds.stream().map(id -> "?").collect(Collectors.joining(","));
+                jdbcTemplate.query("SELECT order_id, attempt FROM payments WHERE order_id IN (" + placeholders + ")",
+                        rs -> {
+                            existing.add(rs.getLong("order_id") + "-" + rs.getInt("attempt"));
+                        }, orderIds.toArray());
+            }
+            for (String reference : batch) {
+                if (!existing.contains(reference)) {
+                    unmatched.add(new Discrepancy("UNKNOWN_SETTLEMENT", null, orderIdOf(reference), reference,
+                            "", settlements.get(reference).amount().toPlainString()));
+                }
+            }
+        }
+        return unmatched;
+    }
+
+    private void writeReport(Run run, List<Discrepancy> unmatched) {
+        writeAtomically(runDir(run.id).resolve("report.csv"), out -> {
+            try {
+                out.write(REPORT_HEADER);
+                out.write('\n');
+                for (long chunk = 0; chunk < run.totalChunks; chunk++) {
+                    try (BufferedReader in = Files.newBufferedReader(run.chunkFile(chunk))) {
+                        in.transferTo(out);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            unmatched.forEach(d -> writeLine(out, d));
+        });
+    }
+
+    private Map<String, Settlement> readSettlements(Path file) {
+        Map<String, Settlement> settlements = new HashMap<>();
+        readCsv(file, List.of("reference", "amount"), row -> settlements.put(row.get("reference"),
+                new Settlement(new BigDecimal(row.get("amount")), row.get("status"))));
+        return settlements;
+    }
+
+    private Map<Long, BigDecimal> readOrderTotals(Path file) {
+        Map<Long, BigDecimal> totals = new HashMap<>();
+        readCsv(file, List.of("order_id", "total_amount"), row ->
+                totals.put(Long.parseLong(row.get("order_id")), new BigDecimal(row.get("total_amount"))));
+        return totals;
+    }
+
+    /** Minimal CSV reader: header row required, comma separated, no quoted fields. */
+    private static void readCsv(Path file, List<String> requiredColumns, Consumer<Map<String, String>> rowHandler) {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String headerLine = in.readLine();
+            if (headerLine == null) {
+                return;
+            }
+            List<String> header = Arrays.stream(headerLine.split(",", -1)).map(String::trim).map(String::toLowerCase).toList();
+            for (String column : requiredColumns) {
+                if (!header.contains(column)) {
+                    throw new IllegalStateException(file + " has no '" + column + "' column");
+                }
+            }
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                String[] fields = line.split(",", -1);
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < header.size() && i < fields.length; i++) {
+                    row.put(header.get(i), fields[i].trim());
+                }
+                rowHandler.accept(row);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file, e);
+        }
+    }
+
+    private static void writeAtomically(Path target, Consumer<Writer> body) {
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                body.accept(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + target, e);
+        }
+    }
+
+    private static void writeLine(Writer out, Discrepancy d) {
+        try {
+            out.write(d.type() + "," + (d.paymentId() != null ? d.paymentId() : "") + "," + (d.orderId() != null ? d.orderId() : "")
+                    + "," + d.reference() + "," + d.expected() + "," + d.actual() + "\n");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Long orderIdOf(String reference) {
+        int dash = reference.lastIndexOf('-');
+        try {
+            return Long.parseLong(dash > 0 ? reference.substring(0, dash) : reference);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Resolves a request file name inside the settlement directory; absolute paths and {@code ..} are rejected. */
+    private Path existingFile(String path, String field) {
+        if (path == null || path.isBlank()) {
+            throw new ValidationException(field + " is required");
+        }
+        Path name;
+        try {
+            name = Path.of(path);
+        } catch (InvalidPathException e) {
+            throw new ValidationException(field + " is not a valid file name: " + path);
+        }
+        boolean escapes = false;
+        for (Path part : name) {
+            escapes |= part.toString().equals("..");
+        }
+        if (name.isAbsolute() || name.getRoot() != null || escapes) {
+            throw new ValidationException(field + " must be a file name relative to the settlement directory: " + path);
+        }
+        Path file = settlementDir.resolve(name).normalize();
+        try {
+            // Compare real paths too, so a symlink inside the directory cannot lead out of it.
+            if (Files.isRegularFile(file) && Files.isReadable(file)
+                    && file.toRealPath().startsWith(settlementDir.toRealPath())) {
+                return file;
+            }
+        } catch (IOException e) {
+            log.debug("Could not resolve {}: {}", file, e.toString());
+        }
+        throw new ValidationException(field + " is not a readable file in the settlement directory: " + path);
+    }
+
+    private Path runDir(String runId) {
+        if (!runId.matches("[A-Za-z0-9-]+")) {
+            throw new ValidationException("Invalid run id: " + runId);
+        }
+        return workDir.resolve(runId);
+    }
+
+    private record Settlement(BigDecimal amount, String status) {
+        boolean settled() {
+            return status == null || status.isEmpty() || status.equalsIgnoreCase("SETTLED")
+                    || status.equalsIgnoreCase("COMPLETED");
+        }
+    }
+
+    private record Discrepancy(String type, Long paymentId, Long orderId, String reference, String expected, String actual) {
+    }
+
+    private class Run {
+        final String id;
+        final Path settlementFile;
+        final Path ordersFile;
+        final long minId;
+        final long maxId;
+        final int chunkSize;
+        final long totalChunks;
+        final AtomicLong completedChunks = new AtomicLong();
+        final AtomicLong rowsScanned = new AtomicLong();
+        final AtomicLong discrepancies = new AtomicLong();
+        final Instant startedAt = Instant.now();
+        volatile Instant finishedAt;
+        volatile String state = "RUNNING";
+        volatile String error;
+
+        Run(String id, Path settlementFile, Path ordersFile, long minId, long maxId, int chunkSize) {
+            this.id = id;
+            this.settlementFile = settlementFile;
+            this.ordersFile = ordersFile;
+            this.minId = minId;
+            this.maxId = maxId;
+            this.chunkSize = chunkSize;
+            this.totalChunks = maxId >= minId ? (maxId - minId) / chunkSize + 1 : 0;
+        }
+
+        Path chunkDir() {
+            return runDir(id).resolve("chunks");
+        }
+
+        Path chunkFile(long chunk) {
+            return chunkDir().resolve(String.format("%08d.csv", chunk));
+        }
+
+        /** Rows scanned by this process per second; chunks completed before a resume are not counted. */
+        double rowsPerSecond() {
+            long millis = Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis();
+            return millis > 0 ? rowsScanned.get() * 1000.0 / millis : 0;
+        }
+
+        ReconciliationStatusResponse toStatus() {
+            return ReconciliationStatusResponse.builder()
+                    .runId(id)
+                    .state(state)
+                    .totalChunks(totalChunks)
+                    .completedChunks(completedChunks.get())
+                    .rowsScanned(rowsScanned.get())
+                    .discrepancies(discrepancies.get())
+                    .rowsPerSecond(rowsPerSecond())
+                    .reportFile("COMPLETED".equals(state) ? runDir(id).resolve("report.csv").toString() : null)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .build();
+        }
+    }
+}
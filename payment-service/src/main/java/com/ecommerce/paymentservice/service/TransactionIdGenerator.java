@@ -0,0 +1,93 @@
+package com.ecommerce.paymentservice.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Snowflake-style transaction ids: 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a
+ * 12-bit per-millisecond sequence. Ids are monotonic per node and roughly time-ordered across nodes,
+ * so inserts land at the right edge of the transaction_id index instead of scattering like random UUIDs.
+ * <p>
+ * Rendered as {@code TXN-} plus 13 Crockford base32 characters. The width is fixed and the alphabet is
+ * in ASCII order, so string order equals numeric order.
+ */
+@Component
+public class TransactionIdGenerator {
+
+    private static final String PREFIX = "TXN-";
+    private static final long EPOCH_MS = 1704067200000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+    private long lastTimestamp = -1L;
+    private long sequence;
+
+    public TransactionIdGenerator(@Value("${payment.transaction-id.node-id:0}") long nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("payment.transaction-id.node-id must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public String nextTransactionId() {
+        return PREFIX + encode(nextId());
+    }
+
+    public synchronized long nextId() {
+        // Never step backwards if the wall clock does: keep issuing from the last timestamp.
+        long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+        if (timestamp == lastTimestamp) {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                timestamp = waitForNextMillis(lastTimestamp);
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return ((timestamp - EPOCH_MS) << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /** Time at which a transaction id was issued, or null if it was not produced by this generator. */
+    public static Instant issuedAt(String transactionId) {
+        if (transactionId == null || transactionId.length() != PREFIX.length() + ENCODED_LENGTH
+                || !transactionId.startsWith(PREFIX)) {
+            return null;
+        }
+        long id = 0;
+        for (int i = PREFIX.length(); i < transactionId.length(); i++) {
+            int digit = Arrays.binarySearch(ALPHABET, transactionId.charAt(i));
+            if (digit < 0) {
+                return null;
+            }
+            id = (id << 5) | digit;
+        }
+        return Instant.ofEpochMilli((id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MS);
+    }
+
+    private static long waitForNextMillis(long lastTimestamp) {
+        long timestamp = System.currentTimeMillis();
+        while (timestamp <= lastTimestamp) {
+            Thread.onSpinWait();
+            timestamp = System.currentTimeMillis();
+        }
+        return timestamp;
+    }
+
+    private static String encode(long id) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,89 @@
+-- =====================================================================
+-- One-time conversion of "payments" to a table range-partitioned by
+-- created_at (one partition per month). PostgreSQL 13+.
+--
+-- Run with payment-service stopped, then start it with
+--   PAYMENT_PARTITIONS_ENABLED=true
+--   SPRING_JPA_HIBERNATE_DDL_AUTO=none
+-- PaymentPartitionMaintenance then keeps upcoming partitions created and
+-- archives partitions older than the retention window.
+--
+-- Unique constraints on a partitioned table must include the partition
+-- key, so (order_id, attempt) uniqueness moves to the small unpartitioned
+-- payment_order_attempts table, enforced by a BEFORE INSERT trigger that
+-- silently skips duplicates. The service's INSERT ... ON CONFLICT DO
+-- NOTHING works unchanged against either layout. When the maintainer drops
+-- an archived partition it deletes that partition's keys from
+-- payment_order_attempts, so the table only covers retained payments.
+-- =====================================================================
+BEGIN;
+
+ALTER TABLE payments RENAME TO payments_legacy;
+ALTER INDEX IF EXISTS idx_payments_transaction_id RENAME TO idx_payments_legacy_transaction_id;
+ALTER INDEX IF EXISTS idx_payments_user_created RENAME TO idx_payments_legacy_user_created;
+ALTER INDEX IF EXISTS idx_payments_user_status_created RENAME TO idx_payments_legacy_user_status_created;
+
+CREATE TABLE payments (
+    id             bigint GENERATED BY DEFAULT AS IDENTITY,
+    order_id       bigint         NOT NULL,
+    attempt        integer        NOT NULL DEFAULT 1,
+    user_id        bigint         NOT NULL,
+    amount         numeric(10, 2) NOT NULL,
+    status         varchar(255)   NOT NULL,
+    transaction_id varchar(32),
+    created_at     timestamp(6)   NOT NULL DEFAULT now(),
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE INDEX idx_payments_transaction_id ON payments (transaction_id);
+CREATE INDEX idx_payments_user_created ON payments (user_id, created_at, id);
+CREATE INDEX idx_payments_user_status_created ON payments (user_id, status, created_at, id);
+CREATE INDEX idx_payments_order_attempt ON payments (order_id, attempt);
+
+CREATE TABLE payment_order_attempts (
+    order_id bigint  NOT NULL,
+    attempt  integer NOT NULL,
+    PRIMARY KEY (order_id, attempt)
+);
+
+CREATE FUNCTION payments_skip_duplicate_attempt() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO payment_order_attempts (order_id, attempt) VALUES (NEW.order_id, NEW.attempt)
+    ON CONFLICT DO NOTHING;
+    IF NOT FOUND THEN
+        RETURN NULL;
+    END IF;
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER payments_skip_duplicate_attempt
+    BEFORE INSERT ON payments
+    FOR EACH ROW EXECUTE FUNCTION payments_skip_duplicate_attempt();
+
+-- Monthly partitions from the oldest legacy row up to three months ahead.
+DO $$
+DECLARE
+    month_start date := date_trunc('month', coalesce((SELECT min(created_at) FROM payments_legacy), now()));
+    last_month  date := date_trunc('month', now() + interval '3 months');
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF payments FOR VALUES FROM (%L) TO (%L)',
+                       'payments_p' || to_char(month_start, 'YYYY_MM'),
+                       month_start, (month_start + interval '1 month')::date);
+        month_start := (month_start + interval '1 month')::date;
+    END LOOP;
+END
+$$;
+
+INSERT INTO payments (id, order_id, attempt, user_id, amount, status, transaction_id, created_at)
+SELECT id, order_id, coalesce(attempt, 1), user_id, amount, status, transaction_id, coalesce(created_at, now())
+FROM payments_legacy
+ORDER BY id;
+
+SELECT setval(pg_get_serial_sequence('payments', 'id'), (SELECT coalesce(max(id), 0) + 1 FROM payments), false);
+
+COMMIT;
+
+-- After verifying row counts:
+-- DROP TABLE payments_legacy;
@@ -0,0 +1,49 @@
+package com.ecommerce.paymentservice.controller;
+
+import com.ecommerce.kafka.DeadLetterReplayResponse;
+import com.ecommerce.kafka.DeadLetterReplayService;
+import com.ecommerce.paymentservice.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Replaying dead letters re-submits charges, so only admins may trigger it. */
+@WebMvcTest(DeadLetterController.class)
+@Import(SecurityConfig.class)
+class DeadLetterControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeadLetterReplayService deadLetterReplayService;
+
+    @Test
+    void anonymousRequestIsForbidden() throws Exception {
+        mockMvc.perform(post("/payments/dead-letters/replay")).andExpect(status().isForbidden());
+        verifyNoInteractions(deadLetterReplayService);
+    }
+
+    @Test
+    void nonAdminIsForbidden() throws Exception {
+        mockMvc.perform(post("/payments/dead-letters/replay").header("X-User-Id", "7").header("X-User-Roles", "USER"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(deadLetterReplayService);
+    }
+
+    @Test
+    void adminMayReplay() throws Exception {
+        when(deadLetterReplayService.replay(100)).thenReturn(DeadLetterReplayResponse.builder().replayed(3).build());
+
+        mockMvc.perform(post("/payments/dead-letters/replay").header("X-User-Id", "1").header("X-User-Roles", "ADMIN"))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.paymentservice.controller;
+
+import com.ecommerce.paymentservice.config.SecurityConfig;
+import com.ecommerce.paymentservice.dto.ReconciliationStatusResponse;
+import com.ecommerce.paymentservice.service.ReconciliationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/** Reconciliation reads files on the service host, so only admins may start it. */
+@WebMvcTest(ReconciliationController.class)
+@Import(SecurityConfig.class)
+class ReconciliationControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReconciliationService reconciliationService;
+
+    @Test
+    void anonymousRequestIsForbidden() throws Exception {
+        mockMvc.perform(start()).andExpect(status().isForbidden());
+        verifyNoInteractions(reconciliationService);
+    }
+
+    @Test
+    void nonAdminIsForbidden() throws Exception {
+        mockMvc.perform(start().header("X-User-Id", "7").header("X-User-Roles", "USER"))
+                .andExpect(status().isForbidden());
+        verifyNoInteractions(reconciliationService);
+    }
+
+    @Test
+    void adminMayStartARun() throws Exception {
+        when(reconciliationService.start(any())).thenReturn(ReconciliationStatusResponse.builder().runId("r1").build());
+
+        mockMvc.perform(start().header("X-User-Id", "1").header("X-User-Roles", "ADMIN"))
+                .andExpect(status().isAccepted());
+    }
+
+    private static MockHttpServletRequestBuilder start() {
+        return post("/payments/reconciliations")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"settlementFile\": \"settlement.csv\"}");
+    }
+}
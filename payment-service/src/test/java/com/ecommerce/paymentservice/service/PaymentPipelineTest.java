@@ -0,0 +1,94 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.paymentservice.dto.ChargeResult;
+import com.ecommerce.paymentservice.entity.Payment;
+import com.ecommerce.paymentservice.entity.Payment.PaymentStatus;
+import com.ecommerce.paymentservice.processor.PaymentProcessor;
+import com.ecommerce.paymentservice.processor.SimulatedPaymentProcessor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentPipelineTest {
+
+    @ParameterizedTest(name = "{0} ms processor latency")
+    @ValueSource(longs = {5, 20, 50})
+    void throughputScalesWithChargesInFlight(long latencyMs) {
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(latencyMs, 0, 0.0);
+        PaymentPipeline pipeline = new PaymentPipeline(processor, 256, 10_000);
+        List<Payment> payments = payments(2_000);
+        try {
+            long start = System.nanoTime();
+            pipeline.chargeAll(payments);
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+            System.out.printf("latency %d ms: %d charges in %d ms (%d charges/sec)%n",
+                    latencyMs, payments.size(), elapsedMs, payments.size() * 1000L / elapsedMs);
+            assertThat(payments).allMatch(p -> p.getStatus() == PaymentStatus.COMPLETED);
+            // One charge at a time would take payments * latency; 256 in flight need about 8 round trips.
+            assertThat(elapsedMs).isLessThan(payments.size() * latencyMs / 20);
+            assertThat(pipeline.availablePermits()).isEqualTo(256);
+        } finally {
+            processor.shutdown();
+        }
+    }
+
+    @Test
+    void timedOutChargeStaysPendingAndKeepsItsPermitUntilTheProcessorAnswers() {
+        CompletableFuture<ChargeResult> answer = new CompletableFuture<>();
+        PaymentPipeline pipeline = new PaymentPipeline(request -> answer, 2, 20);
+        Payment payment = payments(1).get(0);
+
+        pipeline.charge(payment).join();
+
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(pipeline.availablePermits()).isEqualTo(1);
+        answer.complete(ChargeResult.builder().success(true).build());
+        assertThat(pipeline.availablePermits()).isEqualTo(2);
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.PENDING);
+    }
+
+    @Test
+    void processorThrowingReleasesThePermit() {
+        PaymentProcessor throwing = request -> {
+            throw new IllegalStateException("connection refused");
+        };
+        PaymentPipeline pipeline = new PaymentPipeline(throwing, 1, 1_000);
+        List<Payment> payments = payments(3);
+
+        pipeline.chargeAll(payments);
+
+        assertThat(payments).allMatch(p -> p.getStatus() == PaymentStatus.PENDING);
+        assertThat(pipeline.availablePermits()).isEqualTo(1);
+    }
+
+    @Test
+    void declinedChargeFails() {
+        PaymentPipeline pipeline = new PaymentPipeline(request -> CompletableFuture.completedFuture(
+                ChargeResult.builder().success(false).failureReason("DECLINED").build()), 4, 1_000);
+        Payment payment = payments(1).get(0);
+
+        pipeline.chargeAll(List.of(payment));
+
+        assertThat(payment.getStatus()).isEqualTo(PaymentStatus.FAILED);
+    }
+
+    static List<Payment> payments(int count) {
+        return LongStream.rangeClosed(1, count)
+                .mapToObj(orderId -> Payment.builder()
+                        .orderId(orderId)
+                        .attempt(1)
+                        .userId(orderId % 100)
+                        .amount(BigDecimal.TEN)
+                        .status(PaymentStatus.PENDING)
+                        .build())
+                .toList();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.paymentservice.exception.ValidationException;
+import com.ecommerce.paymentservice.repository.PaymentBatchRepository;
+import com.ecommerce.paymentservice.repository.PaymentQueryRepository;
+import com.ecommerce.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Order and user payment lists on a partitioned table default to a recent created_at window so it can prune;
+ * on a plain table they stay unbounded, so old orders remain visible.
+ */
+class PaymentServiceQueryTest {
+
+    private final PaymentRepository paymentRepository = mock(PaymentRepository.class);
+    private final PaymentService service = service(false);
+    private final PaymentService partitionedService = service(true);
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        partitionedService.shutdown();
+    }
+
+    @Test
+    void unboundedOrderLookupOnAPartitionedTableSearchesTheDefaultWindow() {
+        partitionedService.getPaymentsByOrderId(42L, null, null);
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentRepository).findByOrderIdAndCreatedAtBetweenOrderByAttempt(eq(42L), from.capture(), to.capture());
+        assertThat(Duration.between(from.getValue(), to.getValue())).isEqualTo(Duration.ofDays(30));
+        assertThat(to.getValue()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void unboundedOrderLookupOnAPlainTableFindsOldOrders() {
+        service.getPaymentsByOrderId(42L, null, null);
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentRepository).findByOrderIdAndCreatedAtBetweenOrderByAttempt(eq(42L), from.capture(), to.capture());
+        assertThat(from.getValue()).isBefore(LocalDateTime.of(2000, 1, 1, 0, 0));
+        assertThat(to.getValue()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void unboundedUserLookupOnAPlainTableFindsOldPayments() {
+        service.getPaymentsByUserId(7L, null, LocalDateTime.of(2020, 1, 1, 0, 0));
+
+        ArgumentCaptor<LocalDateTime> from = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(paymentRepository).findByUserIdAndCreatedAtBetween(eq(7L), from.capture(), any());
+        assertThat(from.getValue()).isBefore(LocalDateTime.of(2000, 1, 1, 0, 0));
+    }
+
+    @Test
+    void explicitBoundsArePassedThrough() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+        service.getPaymentsByUserId(7L, from, to);
+
+        verify(paymentRepository).findByUserIdAndCreatedAtBetween(7L, from, to);
+    }
+
+    @Test
+    void fromAfterToIsRejected() {
+        LocalDateTime to = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        assertThatThrownBy(() -> service.getPaymentsByUserId(7L, to.plusDays(1), to))
+                .isInstanceOf(ValidationException.class);
+        verify(paymentRepository, never()).findByUserIdAndCreatedAtBetween(any(), any(), any());
+    }
+
+    private PaymentService service(boolean partitioned) {
+        return new PaymentService(paymentRepository, mock(PaymentBatchRepository.class),
+                mock(PaymentQueryRepository.class), mock(PaymentPipeline.class), new TransactionIdGenerator(0),
+                mock(PaymentEventPublisher.class), mock(TransactionTemplate.class), new SimpleMeterRegistry(), 1, 30,
+                partitioned);
+    }
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.paymentservice.entity.Payment;
+import com.ecommerce.paymentservice.entity.Payment.PaymentStatus;
+import com.ecommerce.paymentservice.repository.PaymentBatchRepository;
+import com.ecommerce.paymentservice.repository.PaymentQueryRepository;
+import com.ecommerce.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/** The replay path rebuilds payment rows without ever reaching the processor or the event publisher. */
+class PaymentServiceReplayTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void replayRecordsMissingPaymentsAsPendingWithoutCharging() {
+        PaymentPipeline pipeline = mock(PaymentPipeline.class);
+        PaymentEventPublisher publisher = mock(PaymentEventPublisher.class);
+        PaymentBatchRepository batchRepository = mock(PaymentBatchRepository.class);
+        when(batchRepository.insertAll(any())).thenAnswer(inv -> inv.<List<Payment>>getArgument(0).subList(0, 1));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        PaymentService service = new PaymentService(mock(PaymentRepository.class), batchRepository,
+                mock(PaymentQueryRepository.class), pipeline, new TransactionIdGenerator(0), publisher,
+                transactionTemplate, new SimpleMeterRegistry(), 1, 90, false);
+        try {
+            int recorded = service.recordUnchargedPayments(List.of(event(1), event(2)));
+
+            assertThat(recorded).isEqualTo(1);
+            ArgumentCaptor<List<Payment>> written = ArgumentCaptor.forClass(List.class);
+            verify(batchRepository).insertAll(written.capture());
+            assertThat(written.getValue()).extracting(Payment::getOrderId).containsExactly(1L, 2L);
+            assertThat(written.getValue()).extracting(Payment::getStatus).containsOnly(PaymentStatus.PENDING);
+            verifyNoInteractions(pipeline, publisher);
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    private static OrderPlacedEvent event(long orderId) {
+        return OrderPlacedEvent.builder()
+                .orderId(orderId)
+                .userId(7L)
+                .totalAmount(25.0)
+                .items(List.of())
+                .build();
+    }
+}
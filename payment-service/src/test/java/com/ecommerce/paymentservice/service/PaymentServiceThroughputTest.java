@@ -0,0 +1,131 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.events.OrderPlacedEvent;
+import com.ecommerce.paymentservice.processor.SimulatedPaymentProcessor;
+import com.ecommerce.paymentservice.repository.PaymentBatchRepository;
+import com.ecommerce.paymentservice.repository.PaymentQueryRepository;
+import com.ecommerce.paymentservice.repository.PaymentRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Throughput against the simulated processor. In record mode a listener thread calling the blocking path gets one
+ * charge per round trip, the asynchronous path keeps up to max-in-flight charges outstanding. In batch mode a whole
+ * poll is charged concurrently and written in one transaction, so the per-transaction commit cost is paid once per
+ * poll instead of once per payment.
+ */
+class PaymentServiceThroughputTest {
+
+    /** Events per poll in batch mode, the payment.consumer.max-poll-records default. */
+    private static final int POLL_SIZE = 500;
+
+    @ParameterizedTest(name = "{0} ms processor latency")
+    @ValueSource(longs = {10, 50})
+    void asynchronousRecordPathOutpacesBlockingPath(long latencyMs) {
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(latencyMs, 0, 0.0);
+        PaymentEventPublisher publisher = mock(PaymentEventPublisher.class);
+        PaymentService service = service(processor, publisher, 0);
+        try {
+            double blockingRate = blockingRate(service, events(1, 40));
+            double pipelinedRate = pipelinedRate(service, events(1_000, 2_000));
+
+            System.out.printf("latency %d ms: blocking %.0f payments/sec, pipelined %.0f payments/sec%n",
+                    latencyMs, blockingRate, pipelinedRate);
+            verify(publisher, times(40 + 2_000)).publish(any());
+            assertThat(pipelinedRate).isGreaterThan(blockingRate * 10);
+        } finally {
+            service.shutdown();
+            processor.shutdown();
+        }
+    }
+
+    /**
+     * Single vs batch mode with a simulated commit round trip on every transaction. The record paths commit once
+     * per payment, the batch path once per poll.
+     */
+    @ParameterizedTest(name = "{0} ms per commit")
+    @ValueSource(longs = {1, 5})
+    void batchModeOutpacesSingleMode(long commitMs) {
+        SimulatedPaymentProcessor processor = new SimulatedPaymentProcessor(10, 0, 0.0);
+        PaymentService service = service(processor, mock(PaymentEventPublisher.class), commitMs);
+        try {
+            double blockingRate = blockingRate(service, events(1, 40));
+            double pipelinedRate = pipelinedRate(service, events(1_000, 2_000));
+            List<OrderPlacedEvent> polls = events(10_000, 10 * POLL_SIZE);
+            long start = System.nanoTime();
+            for (int from = 0; from < polls.size(); from += POLL_SIZE) {
+                service.processOrderPlacedBatch(polls.subList(from, from + POLL_SIZE));
+            }
+            double batchRate = polls.size() * 1e9 / (System.nanoTime() - start);
+
+            System.out.printf("10 ms processor latency, %d ms per commit: single blocking %.0f payments/sec, "
+                    + "single pipelined %.0f payments/sec, batch %.0f payments/sec%n",
+                    commitMs, blockingRate, pipelinedRate, batchRate);
+            assertThat(batchRate).isGreaterThan(pipelinedRate * 2).isGreaterThan(blockingRate * 10);
+        } finally {
+            service.shutdown();
+            processor.shutdown();
+        }
+    }
+
+    private static double blockingRate(PaymentService service, List<OrderPlacedEvent> events) {
+        long start = System.nanoTime();
+        events.forEach(service::processOrderPlaced);
+        return events.size() * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static double pipelinedRate(PaymentService service, List<OrderPlacedEvent> events) {
+        long start = System.nanoTime();
+        CompletableFuture.allOf(events.stream().map(service::processOrderPlacedAsync)
+                .toArray(CompletableFuture[]::new)).join();
+        return events.size() * 1e9 / (System.nanoTime() - start);
+    }
+
+    /** A service whose every transaction takes {@code commitMs} before running its callback. */
+    private static PaymentService service(SimulatedPaymentProcessor processor, PaymentEventPublisher publisher,
+                                          long commitMs) {
+        PaymentRepository paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.insertIfAbsent(anyLong(), anyInt(), anyLong(), any(), anyString(), anyString())).thenReturn(1);
+        PaymentBatchRepository paymentBatchRepository = mock(PaymentBatchRepository.class);
+        when(paymentBatchRepository.insertAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> {
+            if (commitMs > 0) {
+                Thread.sleep(commitMs);
+            }
+            return inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+        });
+        return new PaymentService(paymentRepository, paymentBatchRepository,
+                mock(PaymentQueryRepository.class), new PaymentPipeline(processor, 256, 10_000),
+                new TransactionIdGenerator(0), publisher, transactionTemplate, new SimpleMeterRegistry(), 4, 90, false);
+    }
+
+    private static List<OrderPlacedEvent> events(long firstOrderId, int count) {
+        return LongStream.range(firstOrderId, firstOrderId + count)
+                .mapToObj(orderId -> OrderPlacedEvent.builder()
+                        .orderId(orderId)
+                        .userId(orderId % 100)
+                        .totalAmount(25.0)
+                        .items(List.of())
+                        .build())
+                .toList();
+    }
+}
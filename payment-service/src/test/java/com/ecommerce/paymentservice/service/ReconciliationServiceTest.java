@@ -0,0 +1,75 @@
+package com.ecommerce.paymentservice.service;
+
+import com.ecommerce.paymentservice.dto.ReconciliationRequest;
+import com.ecommerce.paymentservice.exception.ValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+/** Request file names are confined to the settlement directory. */
+class ReconciliationServiceTest {
+
+    @TempDir
+    Path root;
+
+    private Path settlementDir;
+    private ReconciliationService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        settlementDir = Files.createDirectories(root.resolve("settlements"));
+        Files.writeString(settlementDir.resolve("settlement.csv"), "reference,amount\n");
+        Files.writeString(root.resolve("secret.csv"), "reference,amount\n");
+        service = new ReconciliationService(mock(JdbcTemplate.class), 100, 1,
+                root.resolve("work").toString(), settlementDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void acceptsAFileInTheSettlementDirectory() {
+        assertThat(service.start(request("settlement.csv")).getRunId()).isNotBlank();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"../secret.csv", "sub/../../secret.csv", "..", "/etc/passwd"})
+    void rejectsPathsOutsideTheSettlementDirectory(String path) {
+        assertThatThrownBy(() -> service.start(request(path)))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("relative to the settlement directory");
+    }
+
+    @Test
+    void rejectsASymlinkLeadingOutOfTheSettlementDirectory() throws IOException {
+        Files.createSymbolicLink(settlementDir.resolve("link.csv"), root.resolve("secret.csv"));
+
+        assertThatThrownBy(() -> service.start(request("link.csv")))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageContaining("not a readable file in the settlement directory");
+    }
+
+    @Test
+    void rejectsAMissingFile() {
+        assertThatThrownBy(() -> service.start(request("missing.csv")))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private static ReconciliationRequest request(String settlementFile) {
+        return ReconciliationRequest.builder().settlementFile(settlementFile).build();
+    }
+}
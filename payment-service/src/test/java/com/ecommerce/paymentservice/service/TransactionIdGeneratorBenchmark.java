@@ -0,0 +1,41 @@
+package com.ecommerce.paymentservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of issuing one transaction id: {@link TransactionIdGenerator} against the {@code "TXN-" + UUID} it replaced.
+ * Under {@code -t} threads the generator's lock is shared, as it is by the payment consumers of one instance.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="TransactionIdGeneratorBenchmark -prof gc"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionIdGeneratorBenchmark {
+
+    private final TransactionIdGenerator generator = new TransactionIdGenerator(0);
+
+    @Benchmark
+    public String snowflake() {
+        return generator.nextTransactionId();
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return "TXN-" + UUID.randomUUID();
+    }
+}
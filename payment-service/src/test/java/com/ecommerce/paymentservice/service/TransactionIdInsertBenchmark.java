@@ -0,0 +1,101 @@
+package com.ecommerce.paymentservice.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Inserts/sec into a payments-shaped table whose {@code transaction_id} is indexed as in {@code Payment}, with
+ * time-ordered ids from {@link TransactionIdGenerator} against random UUID ids. The table is preloaded with
+ * {@value #PRELOAD} rows of the same kind so the index is past its first pages, and the index size and leaf
+ * density are printed at the end of each trial.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="TransactionIdInsertBenchmark"} (needs Docker).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TransactionIdInsertBenchmark {
+
+    private static final int PRELOAD = 2_000_000;
+    private static final int BATCH = 100;
+    private static final String INSERT = "INSERT INTO payments (order_id, transaction_id, created_at) " +
+            "SELECT 1, id, now() FROM unnest(?::varchar[]) AS id";
+
+    public enum IdFormat { SNOWFLAKE, UUID }
+
+    @Param({"SNOWFLAKE", "UUID"})
+    public IdFormat format;
+
+    private final PostgreSQLContainer<?> container = new PostgreSQLContainer<>("postgres:16.2-alpine");
+    private final TransactionIdGenerator generator = new TransactionIdGenerator(0);
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbc;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        container.start();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(container.getJdbcUrl());
+        config.setUsername(container.getUsername());
+        config.setPassword(container.getPassword());
+        dataSource = new HikariDataSource(config);
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE EXTENSION pgstattuple");
+        jdbc.execute("CREATE TABLE payments (id bigserial PRIMARY KEY, order_id bigint NOT NULL, " +
+                "transaction_id varchar(32), created_at timestamp(6))");
+        jdbc.execute("CREATE INDEX idx_payments_transaction_id ON payments (transaction_id)");
+        for (int loaded = 0; loaded < PRELOAD; loaded += 10_000) {
+            jdbc.update(INSERT, (Object) nextIds(10_000));
+        }
+        jdbc.execute("VACUUM ANALYZE payments");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%s: %d rows, transaction_id index %s with %.1f%% leaf density%n", format,
+                jdbc.queryForObject("SELECT count(*) FROM payments", Long.class),
+                jdbc.queryForObject("SELECT pg_size_pretty(pg_relation_size('idx_payments_transaction_id'))",
+                        String.class),
+                jdbc.queryForObject("SELECT avg_leaf_density FROM pgstatindex('idx_payments_transaction_id')",
+                        Double.class));
+        dataSource.close();
+        container.stop();
+    }
+
+    /** One statement of {@value #BATCH} rows; the score is rows per second. */
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int insert() {
+        return jdbc.update(INSERT, (Object) nextIds(BATCH));
+    }
+
+    private String[] nextIds(int count) {
+        String[] ids = new String[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = format == IdFormat.SNOWFLAKE ? generator.nextTransactionId() : "TXN-" + UUID.randomUUID();
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.productservice.config;
+
+import com.ecommerce.productservice.service.ProductCache;
+import com.ecommerce.productservice.service.ProductSearchIndex;
+import com.ecommerce.productservice.service.ProductSuggester;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Subscribes to the product ids published after every write, by this or another instance, and brings the local
+ * cache tier, search index and typeahead suggestions up to date for them.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "product.cache.redis.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductCacheConfig {
+
+    @Bean
+    public RedisMessageListenerContainer productCacheInvalidationListener(RedisConnectionFactory connectionFactory,
+                                                                          ProductCache productCache,
+                                                                          ProductSearchIndex productSearchIndex,
+                                                                          ProductSuggester productSuggester) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener((message, pattern) -> {
+            String ids = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                List<Long> productIds = Arrays.stream(ids.split(",")).map(Long::parseLong).toList();
+                productIds.forEach(productCache::evictLocal);
+                productSearchIndex.reindex(productIds);
+                productSuggester.refresh(productIds);
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring malformed product cache invalidation: {}", ids);
+            }
+        }, new ChannelTopic(ProductCache.INVALIDATION_CHANNEL));
+        return container;
+    }
+}
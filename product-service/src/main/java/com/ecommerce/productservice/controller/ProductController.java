@@ -1,23 +1,66 @@
 package com.ecommerce.productservice.controller;
 
+import com.ecommerce.productservice.dto.ProductFacetsResponse;
+import com.ecommerce.productservice.dto.ProductImportFormat;
+import com.ecommerce.productservice.dto.ProductImportReport;
+import com.ecommerce.productservice.dto.ProductPageResponse;
 import com.ecommerce.productservice.dto.ProductRequest;
 import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.ProductSearchResponse;
+import com.ecommerce.productservice.dto.ProductSort;
+import com.ecommerce.productservice.dto.ProductSuggestion;
+import com.ecommerce.productservice.service.ProductImportService;
 import com.ecommerce.productservice.service.ProductService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
 
+/**
+ * Product reads carry strong ETags and a configurable Cache-Control. A single product's ETag is derived from its
+ * id and updatedAt; list ETags from the catalog version, which is checked before the list is queried, so a
+ * matching If-None-Match costs one primary-key read and returns 304 with no body. Search results are not tagged:
+ * the search index trails the database by up to a second, so a version could be paired with stale results.
+ */
 @RestController
 @RequestMapping("/products")
-@RequiredArgsConstructor
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
+    private final MeterRegistry meterRegistry;
+    private final String itemCacheControl;
+    private final String listCacheControl;
+    private final String suggestCacheControl;
+
+    public ProductController(ProductService productService,
+                             ProductImportService productImportService,
+                             MeterRegistry meterRegistry,
+                             @Value("${product.http.cache-control.item:public, max-age=60}") String itemCacheControl,
+                             @Value("${product.http.cache-control.list:public, no-cache}") String listCacheControl,
+                             @Value("${product.http.cache-control.suggest:public, max-age=30}") String suggestCacheControl) {
+        this.productService = productService;
+        this.productImportService = productImportService;
+        this.meterRegistry = meterRegistry;
+        this.itemCacheControl = itemCacheControl;
+        this.listCacheControl = listCacheControl;
+        this.suggestCacheControl = suggestCacheControl;
+    }
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
@@ -25,18 +68,72 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(productService.createProduct(request));
     }
 
+    /**
+     * Bulk insert-or-update keyed on SKU from a CSV (with header) or NDJSON body, optionally gzip-encoded. The body
+     * is streamed, so uploads of any size run in constant memory.
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportReport> importProducts(HttpServletRequest request) throws IOException {
+        ProductImportFormat format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv")) ? ProductImportFormat.CSV : ProductImportFormat.NDJSON;
+        InputStream body = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            body = new GZIPInputStream(body, 64 * 1024);
+        }
+        return ResponseEntity.ok(productImportService.importProducts(body, format));
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProductById(id));
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        ProductResponse product = productService.getProductById(id);
+        return conditional(webRequest, "item", itemEtag(product), itemCacheControl, () -> product);
     }
 
     @GetMapping
     public ResponseEntity<List<ProductResponse>> getAllProducts(
-            @RequestParam(required = false) String category) {
-        if (category != null && !category.isBlank()) {
-            return ResponseEntity.ok(productService.getProductsByCategory(category));
-        }
-        return ResponseEntity.ok(productService.getAllProducts());
+            @RequestParam(required = false) String category, WebRequest webRequest) {
+        return conditional(webRequest, "list", catalogEtag(), listCacheControl,
+                () -> category != null && !category.isBlank()
+                        ? productService.getProductsByCategory(category)
+                        : productService.getAllProducts());
+    }
+
+    @GetMapping("/page")
+    public ResponseEntity<ProductPageResponse> getProductPage(
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "true") boolean activeOnly,
+            @RequestParam(defaultValue = "NEWEST") ProductSort sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest) {
+        return conditional(webRequest, "page", catalogEtag(), listCacheControl,
+                () -> productService.getProductPage(category, minPrice, maxPrice, activeOnly, sort, cursor, size));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<ProductSearchResponse> searchProducts(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProducts(q, category, page, size));
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestion>> suggestProducts(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, suggestCacheControl)
+                .body(productService.suggestProducts(q, limit));
+    }
+
+    @GetMapping("/facets")
+    public ResponseEntity<ProductFacetsResponse> getFacets(WebRequest webRequest) {
+        return conditional(webRequest, "facets", catalogEtag(), listCacheControl, productService::getFacets);
     }
 
     @PutMapping("/{id}")
@@ -51,4 +148,29 @@ public class ProductController {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Answers 304 when If-None-Match matches {@code etag}; only otherwise is the body produced. Outcomes are
+     * counted in {@code products.http.conditional} (tagged by endpoint and result) to track bytes and reads saved.
+     */
+    private <T> ResponseEntity<T> conditional(WebRequest webRequest, String endpoint, String etag, String cacheControl,
+                                              Supplier<T> body) {
+        boolean notModified = webRequest.checkNotModified(etag);
+        meterRegistry.counter("products.http.conditional", "endpoint", endpoint,
+                "result", notModified ? "not_modified" : "modified").increment();
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+        return notModified ? response.build() : response.body(body.get());
+    }
+
+    private static String itemEtag(ProductResponse product) {
+        long version = product.getUpdatedAt() == null ? 0 : product.getUpdatedAt().toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L
+                + product.getUpdatedAt().getNano();
+        return "\"p" + product.getId() + "-" + Long.toHexString(version) + "\"";
+    }
+
+    private String catalogEtag() {
+        return "\"c" + productService.getCatalogVersion() + "\"";
+    }
 }
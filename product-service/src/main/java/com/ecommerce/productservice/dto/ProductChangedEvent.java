@@ -0,0 +1,13 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Published in-process when a product is created, updated or deleted; listeners see it after the commit. */
+@Getter
+@AllArgsConstructor
+public class ProductChangedEvent {
+
+    private final Long productId;
+    private final boolean deleted;
+}
@@ -0,0 +1,41 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacetsResponse {
+
+    /** Active products per category, largest first. */
+    private List<CategoryCount> categories;
+    /** Active products per price range, cheapest first. */
+    private List<PriceRangeCount> priceRanges;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CategoryCount {
+        private String category;
+        private long count;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceRangeCount {
+        private BigDecimal min;
+        /** Exclusive; null for the open-ended top range. */
+        private BigDecimal max;
+        private long count;
+    }
+}
@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.dto;
+
+/** Upload formats of the bulk product import. */
+public enum ProductImportFormat {
+    /** Comma-separated with a header row naming the columns. */
+    CSV,
+    /** One JSON object per line. */
+    NDJSON
+}
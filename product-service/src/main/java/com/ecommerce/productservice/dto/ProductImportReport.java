@@ -0,0 +1,44 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportReport {
+
+    private ProductImportFormat format;
+    private long rowsRead;
+    private long inserted;
+    private long updated;
+    /** Rows identical to the stored product; nothing was written for them. */
+    private long unchanged;
+    private long rejected;
+    private long chunksCommitted;
+    /** Input line up to which every accepted row is committed; re-importing from here resumes an aborted run. */
+    private long committedThroughLine;
+    /** False when the import stopped early; {@link #abortReason} says why. */
+    private boolean completed;
+    private String abortReason;
+    private long durationMs;
+    /** The first rejected rows, up to {@code product.import.max-reported-errors}. */
+    @Builder.Default
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String sku;
+        private String message;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.productservice.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/** One product of a bulk import; the columns (CSV) or fields (NDJSON) are named after these properties. */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductImportRow {
+
+    @NotBlank(message = "SKU is required")
+    @Size(max = 64)
+    private String sku;
+
+    @NotBlank(message = "Name is required")
+    @Size(min = 2, max = 200)
+    private String name;
+
+    @Size(max = 1000)
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.01", message = "Price must be positive")
+    @Digits(integer = 8, fraction = 2)
+    private BigDecimal price;
+
+    @NotBlank(message = "Category is required")
+    @Size(max = 100)
+    private String category;
+
+    /** Defaults to true when absent. */
+    private Boolean active;
+}
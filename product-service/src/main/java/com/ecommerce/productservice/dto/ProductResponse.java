@@ -15,10 +15,12 @@ import java.time.LocalDateTime;
 public class ProductResponse {
 
     private Long id;
+    private String sku;
     private String name;
     private String description;
     private BigDecimal price;
     private String category;
     private Boolean active;
     private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
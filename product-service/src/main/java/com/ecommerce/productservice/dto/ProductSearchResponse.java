@@ -0,0 +1,21 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSearchResponse {
+
+    /** Best match first. */
+    private List<ProductResponse> items;
+    private long totalHits;
+    private int page;
+    private int size;
+}
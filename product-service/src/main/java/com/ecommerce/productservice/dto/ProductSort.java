@@ -0,0 +1,9 @@
+package com.ecommerce.productservice.dto;
+
+/** Sort orders of the product listing. Ties are broken by id in the same direction, so every order is total. */
+public enum ProductSort {
+    NEWEST,
+    PRICE_ASC,
+    PRICE_DESC,
+    NAME
+}
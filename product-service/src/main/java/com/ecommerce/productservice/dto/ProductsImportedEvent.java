@@ -0,0 +1,17 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Published in-process for each committed bulk import chunk with the products it inserted or changed, so
+ * listeners can refresh them in one pass rather than one {@link ProductChangedEvent} at a time.
+ */
+@Getter
+@AllArgsConstructor
+public class ProductsImportedEvent {
+
+    private final List<Long> productIds;
+}
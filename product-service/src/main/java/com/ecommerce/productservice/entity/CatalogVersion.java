@@ -0,0 +1,25 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Single-row counter bumped in the same transaction as every catalog write, so any instance can tell whether
+ * a list response it served earlier is still current with one primary-key read.
+ */
+@Entity
+@Table(name = "catalog_version")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+
+    public static final long ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long version;
+}
@@ -7,7 +7,15 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products",
+        indexes = {
+                @Index(name = "idx_products_active_created", columnList = "active, createdAt, id"),
+                @Index(name = "idx_products_active_price", columnList = "active, price, id"),
+                @Index(name = "idx_products_active_name", columnList = "active, name, id"),
+                @Index(name = "idx_products_active_category_created", columnList = "active, category, createdAt, id"),
+                @Index(name = "idx_products_active_category_price", columnList = "active, category, price, id"),
+                @Index(name = "idx_products_updated", columnList = "updatedAt, id")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,6 +27,10 @@ public class Product {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /** External stock-keeping unit; set by bulk import, which matches existing products on it. */
+    @Column(unique = true, length = 64)
+    private String sku;
+
     @Column(nullable = false)
     private String name;
 
@@ -34,6 +46,10 @@ public class Product {
     @Builder.Default
     private Boolean active = true;
 
+    /** Detail views so far, flushed in batches by ProductPopularity; never written through JPA. */
+    @Column(insertable = false, updatable = false, columnDefinition = "bigint not null default 0")
+    private Long popularity;
+
     @Column(updatable = false)
     private LocalDateTime createdAt;
 
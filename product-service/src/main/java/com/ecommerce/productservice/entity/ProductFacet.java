@@ -0,0 +1,43 @@
+package com.ecommerce.productservice.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * Number of active products per facet value: {@code category/<name>} and {@code price/<bucket lower bound>}.
+ * Maintained by {@link com.ecommerce.productservice.service.ProductFacetService} in the same transaction as each
+ * product write.
+ */
+@Entity
+@Table(name = "product_facets")
+@IdClass(ProductFacet.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductFacet {
+
+    public static final String CATEGORY = "category";
+    public static final String PRICE = "price";
+
+    @Id
+    @Column(length = 20)
+    private String facet;
+
+    @Id
+    @Column(name = "facet_value")
+    private String value;
+
+    @Column(nullable = false)
+    private Long productCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String facet;
+        private String value;
+    }
+}
@@ -0,0 +1,8 @@
+package com.ecommerce.productservice.exception;
+
+public class ValidationException extends RuntimeException {
+
+    public ValidationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,21 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.CatalogVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CatalogVersionRepository extends JpaRepository<CatalogVersion, Long> {
+
+    /** Increments the catalog version, creating the row on first use. Holds the row lock until commit. */
+    @Modifying
+    @Query(value = "INSERT INTO catalog_version (id, version) VALUES (1, 1) " +
+            "ON CONFLICT (id) DO UPDATE SET version = catalog_version.version + 1", nativeQuery = true)
+    void increment();
+
+    default long current() {
+        return findById(CatalogVersion.ID).map(CatalogVersion::getVersion).orElse(0L);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.entity.ProductFacet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ProductFacetRepository extends JpaRepository<ProductFacet, ProductFacet.Key> {
+
+    /** Adds {@code delta} to a facet count, creating the row on first use. */
+    @Modifying
+    @Query(value = "INSERT INTO product_facets (facet, facet_value, product_count) VALUES (:facet, :value, :delta) " +
+            "ON CONFLICT (facet, facet_value) DO UPDATE SET product_count = product_facets.product_count + EXCLUDED.product_count",
+            nativeQuery = true)
+    void add(@Param("facet") String facet, @Param("value") String value, @Param("delta") long delta);
+
+    List<ProductFacet> findByFacetAndProductCountGreaterThan(String facet, long productCount);
+}
@@ -0,0 +1,78 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.dto.ProductSort;
+import com.ecommerce.productservice.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Keyset (seek) pagination over the catalog, ordered by (sort key, id). Each page starts right after the
+ * previous page's last row, so it costs the same however deep the client pages. Served by the
+ * (active[, category], sort key, id) indexes on {@link Product}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductQueryRepository {
+
+    private final EntityManager entityManager;
+
+    /**
+     * @param afterKey sort key of the previous page's last row ({@code createdAt}, {@code price} or {@code name},
+     *                 matching {@code sort}); null for the first page
+     */
+    public List<Product> findPage(String category, BigDecimal minPrice, BigDecimal maxPrice, boolean activeOnly,
+                                  ProductSort sort, Object afterKey, Long afterId, int limit) {
+        String key = "p." + sortKey(sort);
+        boolean descending = sort == ProductSort.NEWEST || sort == ProductSort.PRICE_DESC;
+        String direction = descending ? "desc" : "asc";
+        String after = descending ? "<" : ">";
+
+        StringBuilder jpql = new StringBuilder("select p from Product p where 1 = 1");
+        if (activeOnly) {
+            jpql.append(" and p.active = true");
+        }
+        if (category != null) {
+            jpql.append(" and p.category = :category");
+        }
+        if (minPrice != null) {
+            jpql.append(" and p.price >= :minPrice");
+        }
+        if (maxPrice != null) {
+            jpql.append(" and p.price <= :maxPrice");
+        }
+        if (afterKey != null) {
+            jpql.append(" and (").append(key).append(' ').append(after).append(" :afterKey or (")
+                    .append(key).append(" = :afterKey and p.id ").append(after).append(" :afterId))");
+        }
+        jpql.append(" order by ").append(key).append(' ').append(direction).append(", p.id ").append(direction);
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class)
+                .setMaxResults(limit);
+        if (category != null) {
+            query.setParameter("category", category);
+        }
+        if (minPrice != null) {
+            query.setParameter("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            query.setParameter("maxPrice", maxPrice);
+        }
+        if (afterKey != null) {
+            query.setParameter("afterKey", afterKey).setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    private static String sortKey(ProductSort sort) {
+        return switch (sort) {
+            case NEWEST -> "createdAt";
+            case PRICE_ASC, PRICE_DESC -> "price";
+            case NAME -> "name";
+        };
+    }
+}
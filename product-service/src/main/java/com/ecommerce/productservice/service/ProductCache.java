@@ -0,0 +1,230 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductChangedEvent;
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.ProductsImportedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Two-tier cache for {@link ProductService#getProductById}: a bounded per-instance Caffeine tier in front of a
+ * shared Redis tier, then the database.
+ * <p>
+ * Stampede protection: within an instance the first caller of a cold key loads it on its own thread while later
+ * callers wait on its future; the load runs outside any cache lock, so a slow Redis or database only holds up
+ * callers of that key. Across instances a Redis {@code SET NX} lock lets one instance load a cold key from the
+ * database while the others poll Redis briefly for its result, and only query the database themselves if it does
+ * not appear in time.
+ * <p>
+ * Invalidation: after a product write commits, its Redis entry is replaced by a tombstone for
+ * {@code product.cache.redis.tombstone-ttl}, the local entry evicted, and the id is published (comma-separated for
+ * an import chunk) on {@link #INVALIDATION_CHANNEL} so every other instance evicts its local copy. Loads only fill
+ * Redis where there is no tombstone, so a load that read the row before the write cannot put it back afterwards,
+ * and an evicted local load is dropped when it completes. A lost message is bounded by the local TTL.
+ * Redis errors never fail a read: the cache degrades to the local tier and the database.
+ */
+@Slf4j
+@Component
+public class ProductCache {
+
+    public static final String INVALIDATION_CHANNEL = "product-cache-invalidation";
+    private static final String KEY_PREFIX = "product:";
+    private static final Duration LOCK_TTL = Duration.ofSeconds(5);
+    private static final long LOCK_WAIT_MS = 200;
+    private static final long LOCK_POLL_MS = 20;
+    private static final String TOMBSTONE = "deleted";
+    /** Sets KEYS[1] to ARGV[1] for ARGV[3] ms unless it holds the tombstone ARGV[2]. */
+    private static final RedisScript<Long> SET_UNLESS_TOMBSTONE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[2] then return 0 end " +
+            "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[3]) return 1", Long.class);
+    /** Sets every key to the tombstone ARGV[1] for ARGV[2] ms. */
+    private static final RedisScript<Long> SET_TOMBSTONES = new DefaultRedisScript<>(
+            "for _, key in ipairs(KEYS) do redis.call('SET', key, ARGV[1], 'PX', ARGV[2]) end " +
+            "return #KEYS", Long.class);
+
+    private final AsyncCache<Long, ProductResponse> local;
+    private final StringRedisTemplate redis;
+    private final ObjectMapper objectMapper;
+    private final boolean redisEnabled;
+    private final Duration redisTtl;
+    private final Duration tombstoneTtl;
+
+    public ProductCache(StringRedisTemplate redis,
+                        ObjectMapper objectMapper,
+                        MeterRegistry meterRegistry,
+                        @Value("${product.cache.local.max-size:10000}") long localMaxSize,
+                        @Value("${product.cache.local.ttl:60s}") Duration localTtl,
+                        @Value("${product.cache.redis.enabled:true}") boolean redisEnabled,
+                        @Value("${product.cache.redis.ttl:10m}") Duration redisTtl,
+                        @Value("${product.cache.redis.tombstone-ttl:30s}") Duration tombstoneTtl) {
+        this.local = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl)
+                .recordStats()
+                .buildAsync();
+        this.redis = redis;
+        this.objectMapper = objectMapper;
+        this.redisEnabled = redisEnabled;
+        this.redisTtl = redisTtl;
+        this.tombstoneTtl = tombstoneTtl;
+        CaffeineCacheMetrics.monitor(meterRegistry, local.synchronous(), "products.local");
+    }
+
+    /** Returns the cached product, loading it with {@code loader} (which may throw) on a miss in both tiers. */
+    public ProductResponse get(Long id, Supplier<ProductResponse> loader) {
+        CompletableFuture<ProductResponse> loading = new CompletableFuture<>();
+        CompletableFuture<ProductResponse> cached = local.get(id, (key, executor) -> loading);
+        if (cached == loading) {
+            // This caller loads, outside the map's compute; a failed future is removed by the cache.
+            try {
+                loading.complete(redisEnabled ? loadShared(id, loader) : loader.get());
+            } catch (RuntimeException e) {
+                loading.completeExceptionally(e);
+            }
+        }
+        try {
+            return cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /** Drops a product from this instance's local tier only; used by the invalidation subscriber. */
+    public void evictLocal(Long id) {
+        local.synchronous().invalidate(id);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Long id = event.getProductId();
+        local.synchronous().invalidate(id);
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            writeTombstones(List.of(KEY_PREFIX + id));
+            redis.convertAndSend(INVALIDATION_CHANNEL, String.valueOf(id));
+        } catch (DataAccessException e) {
+            log.warn("Could not invalidate product {} in Redis; stale for up to {}: {}", id, redisTtl, e.getMessage());
+        }
+    }
+
+    /** Evicts an import chunk with one Redis script call and one invalidation message carrying all its ids. */
+    @TransactionalEventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        List<Long> ids = event.getProductIds();
+        local.synchronous().invalidateAll(ids);
+        if (!redisEnabled || ids.isEmpty()) {
+            return;
+        }
+        try {
+            writeTombstones(ids.stream().map(id -> KEY_PREFIX + id).toList());
+            redis.convertAndSend(INVALIDATION_CHANNEL, ids.stream().map(String::valueOf).collect(Collectors.joining(",")));
+        } catch (DataAccessException e) {
+            log.warn("Could not invalidate {} imported products in Redis; stale for up to {}: {}", ids.size(), redisTtl,
+                    e.getMessage());
+        }
+    }
+
+    private ProductResponse loadShared(Long id, Supplier<ProductResponse> loader) {
+        String key = KEY_PREFIX + id;
+        ProductResponse cached = readShared(key);
+        if (cached != null) {
+            return cached;
+        }
+        String lockKey = key + ":lock";
+        boolean locked = tryLock(lockKey);
+        if (!locked) {
+            cached = awaitShared(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        try {
+            ProductResponse product = loader.get();
+            writeShared(key, product);
+            return product;
+        } finally {
+            if (locked) {
+                unlock(lockKey);
+            }
+        }
+    }
+
+    /** Another instance is loading the key; wait briefly for it to appear rather than hitting the database too. */
+    private ProductResponse awaitShared(String key) {
+        long deadline = System.currentTimeMillis() + LOCK_WAIT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Thread.sleep(LOCK_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ProductResponse cached = readShared(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return null;
+    }
+
+    private ProductResponse readShared(String key) {
+        try {
+            String json = redis.opsForValue().get(key);
+            return json != null && !json.equals(TOMBSTONE) ? objectMapper.readValue(json, ProductResponse.class) : null;
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.debug("Redis read of {} failed: {}", key, e.getMessage());
+            return null;
+        }
+    }
+
+    /** Fills Redis with a loaded product unless a write has tombstoned the key since. */
+    private void writeShared(String key, ProductResponse product) {
+        try {
+            redis.execute(SET_UNLESS_TOMBSTONE, List.of(key), objectMapper.writeValueAsString(product), TOMBSTONE,
+                    String.valueOf(redisTtl.toMillis()));
+        } catch (DataAccessException | JsonProcessingException e) {
+            log.debug("Redis write of {} failed: {}", key, e.getMessage());
+        }
+    }
+
+    private void writeTombstones(List<String> keys) {
+        redis.execute(SET_TOMBSTONES, keys, TOMBSTONE, String.valueOf(tombstoneTtl.toMillis()));
+    }
+
+    private boolean tryLock(String lockKey) {
+        try {
+            return Boolean.TRUE.equals(redis.opsForValue().setIfAbsent(lockKey, "1", LOCK_TTL));
+        } catch (DataAccessException e) {
+            return true; // Redis unavailable: load directly
+        }
+    }
+
+    private void unlock(String lockKey) {
+        try {
+            redis.delete(lockKey);
+        } catch (DataAccessException e) {
+            log.debug("Redis unlock of {} failed: {}", lockKey, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,321 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductSort;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * Optional in-memory engine for {@link ProductService#getProductPage} over active products
+ * ({@code product.columnar.enabled}). It answers the filter, sort and keyset step with primitive arrays and returns
+ * only the ids of the page, which the caller then loads from the database.
+ * <p>
+ * Columns are held in (price, id) order: id, price in cents, created time in epoch micros, and a category code
+ * into a dictionary. A price range is therefore a contiguous row range found by binary search, each category has a
+ * bitmap of its rows, and a permutation array gives the newest-first order. Memory is about 28 bytes per product
+ * plus one bit per product for each category's bitmap.
+ * <p>
+ * The columns are an immutable snapshot that records the catalog version it was loaded at. A query is only served
+ * while that version is still current, so it returns exactly what the database would; otherwise, and for
+ * unsupported queries (NAME sort, inactive products), the caller falls back to SQL. A scheduled task reloads the
+ * snapshot once the version moves, whichever instance made the change.
+ */
+@Slf4j
+@Component
+public class ProductColumnStore {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+    /** Row indexes are packed into the low bits of sort keys. */
+    private static final int ROW_BITS = 29;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+
+    private volatile Snapshot snapshot;
+
+    public ProductColumnStore(JdbcTemplate jdbcTemplate,
+                              CatalogVersionRepository catalogVersionRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${product.columnar.enabled:false}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        Gauge.builder("products.columnar.rows", this, s -> s.snapshot != null ? s.snapshot.size : 0)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Ids of the next {@code limit} active products matching the filters, in {@code sort} order after {@code after}
+     * (a cursor position as decoded by {@link ProductService}), or null when the query must go to the database.
+     */
+    public List<Long> findPage(String category, BigDecimal minPrice, BigDecimal maxPrice, boolean activeOnly,
+                               ProductSort sort, Product after, int limit) {
+        if (!enabled) {
+            return null;
+        }
+        Snapshot current = snapshot;
+        String result;
+        if (!activeOnly || sort == ProductSort.NAME
+                || (after != null && after.getPrice() != null && after.getPrice().stripTrailingZeros().scale() > 2)) {
+            result = "unsupported";
+        } else if (current == null || current.version != catalogVersionRepository.current()) {
+            result = "stale";
+        } else {
+            result = "served";
+        }
+        meterRegistry.counter("products.columnar.queries", "result", result).increment();
+        return current != null && result.equals("served")
+                ? current.findPage(category, minPrice, maxPrice, sort, after, limit)
+                : null;
+    }
+
+    /** Reloads the snapshot when the catalog version has moved; runs back to back at most every interval. */
+    @Scheduled(fixedDelayString = "${product.columnar.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        // Read before the rows: a write committing during the load moves the version past the snapshot's.
+        long version = catalogVersionRepository.current();
+        Snapshot current = snapshot;
+        if (current != null && current.version == version) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            snapshot = load(version);
+            log.info("Loaded {} active products into the column store at catalog version {} in {} ms",
+                    snapshot.size, version, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Failed to load the product column store: {}", e.getMessage(), e);
+        }
+    }
+
+    private Snapshot load(long version) {
+        Columns columns = new Columns();
+        long[] lastId = {0};
+        int before;
+        do {
+            before = columns.size;
+            jdbcTemplate.query("SELECT id, price, category, created_at FROM products WHERE active AND id > ? " +
+                    "ORDER BY id LIMIT ?", (RowCallbackHandler) rs -> {
+                lastId[0] = rs.getLong("id");
+                LocalDateTime createdAt = rs.getObject("created_at", LocalDateTime.class);
+                columns.add(lastId[0], cents(rs.getBigDecimal("price")), rs.getString("category"),
+                        createdAt != null ? micros(createdAt) : 0);
+            }, lastId[0], LOAD_PAGE_SIZE);
+        } while (columns.size - before == LOAD_PAGE_SIZE);
+        return columns.toSnapshot(version);
+    }
+
+    private static long cents(BigDecimal price) {
+        return price.movePointRight(2).setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+    }
+
+    /** Growable load buffer, in id order. */
+    private static final class Columns {
+        long[] ids = new long[1024];
+        long[] prices = new long[1024];
+        long[] created = new long[1024];
+        int[] categories = new int[1024];
+        final List<String> dictionary = new ArrayList<>();
+        final Map<String, Integer> codes = new HashMap<>();
+        int size;
+
+        void add(long id, long price, String category, long createdAt) {
+            if (size == ids.length) {
+                if (size >= 1 << ROW_BITS) {
+                    throw new IllegalStateException("Too many products for the column store");
+                }
+                ids = Arrays.copyOf(ids, size * 2);
+                prices = Arrays.copyOf(prices, size * 2);
+                created = Arrays.copyOf(created, size * 2);
+                categories = Arrays.copyOf(categories, size * 2);
+            }
+            ids[size] = id;
+            prices[size] = price;
+            created[size] = createdAt;
+            categories[size] = codes.computeIfAbsent(category, c -> {
+                dictionary.add(c);
+                return dictionary.size() - 1;
+            });
+            size++;
+        }
+
+        /** Reorders the rows by (price, id) and builds the category bitmaps and the newest-first permutation. */
+        Snapshot toSnapshot(long version) {
+            // Rows arrive in id order, so sorting (price, row) also breaks price ties by id.
+            long[] keys = new long[size];
+            for (int row = 0; row < size; row++) {
+                keys[row] = prices[row] << ROW_BITS | row;
+            }
+            Arrays.sort(keys);
+            Snapshot snapshot = new Snapshot(version, size, dictionary.size());
+            for (int i = 0; i < size; i++) {
+                int row = (int) (keys[i] & ((1 << ROW_BITS) - 1));
+                snapshot.ids[i] = ids[row];
+                snapshot.prices[i] = prices[row];
+                snapshot.created[i] = created[row];
+                snapshot.categoryBitmaps[categories[row]].set(i);
+            }
+            for (int code = 0; code < dictionary.size(); code++) {
+                snapshot.codes.put(dictionary.get(code), code);
+            }
+            snapshot.newest = IntStream.range(0, size).boxed()
+                    .sorted((a, b) -> snapshot.compareCreated(b, a))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            return snapshot;
+        }
+    }
+
+    private static final class Snapshot {
+        final long version;
+        final int size;
+        final long[] ids;
+        final long[] prices;
+        final long[] created;
+        final BitSet[] categoryBitmaps;
+        final Map<String, Integer> codes = new HashMap<>();
+        /** Rows ordered by (created, id) descending. */
+        int[] newest;
+
+        Snapshot(long version, int size, int categoryCount) {
+            this.version = version;
+            this.size = size;
+            this.ids = new long[size];
+            this.prices = new long[size];
+            this.created = new long[size];
+            this.categoryBitmaps = new BitSet[categoryCount];
+            for (int code = 0; code < categoryCount; code++) {
+                categoryBitmaps[code] = new BitSet(size);
+            }
+        }
+
+        List<Long> findPage(String category, BigDecimal minPrice, BigDecimal maxPrice, ProductSort sort,
+                            Product after, int limit) {
+            BitSet bitmap = null;
+            if (category != null) {
+                Integer code = codes.get(category);
+                if (code == null) {
+                    return List.of();
+                }
+                bitmap = categoryBitmaps[code];
+            }
+            // Rows [from, to) are those within the price range.
+            int from = minPrice != null ? firstPriceAtLeast(minPrice.movePointRight(2).setScale(0, RoundingMode.CEILING).longValue()) : 0;
+            int to = maxPrice != null ? firstPriceAtLeast(maxPrice.movePointRight(2).setScale(0, RoundingMode.FLOOR).longValue() + 1) : size;
+            List<Long> page = new ArrayList<>(limit);
+            switch (sort) {
+                case PRICE_ASC -> {
+                    int row = after != null ? Math.max(from, firstAfter(cents(after.getPrice()), after.getId())) : from;
+                    while (page.size() < limit && row < to) {
+                        row = bitmap != null ? bitmap.nextSetBit(row) : row;
+                        if (row < 0 || row >= to) {
+                            break;
+                        }
+                        page.add(ids[row++]);
+                    }
+                }
+                case PRICE_DESC -> {
+                    int row = after != null ? Math.min(to, firstAfter(cents(after.getPrice()), after.getId() - 1)) - 1 : to - 1;
+                    while (page.size() < limit && row >= from) {
+                        row = bitmap != null ? bitmap.previousSetBit(row) : row;
+                        if (row < from) {
+                            break;
+                        }
+                        page.add(ids[row--]);
+                    }
+                }
+                case NEWEST -> {
+                    int position = after != null ? firstOlder(micros(after.getCreatedAt()), after.getId()) : 0;
+                    for (; page.size() < limit && position < size; position++) {
+                        int row = newest[position];
+                        if (row >= from && row < to && (bitmap == null || bitmap.get(row))) {
+                            page.add(ids[row]);
+                        }
+                    }
+                }
+                default -> throw new IllegalArgumentException("Unsupported sort " + sort);
+            }
+            return page;
+        }
+
+        /** First row whose price is at least {@code cents}. */
+        private int firstPriceAtLeast(long cents) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < cents) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** First row ordered after (price, id). */
+        private int firstAfter(long price, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (prices[mid] < price || (prices[mid] == price && ids[mid] <= id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** First position in {@link #newest} ordered after (created, id), i.e. older. */
+        private int firstOlder(long createdAt, long id) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int row = newest[mid];
+                if (created[row] > createdAt || (created[row] == createdAt && ids[row] >= id)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int compareCreated(int a, int b) {
+            int byCreated = Long.compare(created[a], created[b]);
+            return byCreated != 0 ? byCreated : Long.compare(ids[a], ids[b]);
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductFacetsResponse;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.entity.ProductFacet;
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import com.ecommerce.productservice.repository.ProductFacetRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Category and price-range counts of active products, kept in {@code product_facets} as running totals.
+ * <p>
+ * {@link ProductService} applies each write's +1/-1 deltas in the write's own transaction, so counts are exact as
+ * soon as it commits and reading them never scans products. Price ranges are bounded by
+ * {@code product.facets.price-bounds}; after changing them (or if the table is ever suspected wrong) set
+ * {@code product.facets.rebuild-on-startup} once to recount from the products table.
+ */
+@Slf4j
+@Service
+public class ProductFacetService {
+
+    private final ProductFacetRepository productFacetRepository;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BigDecimal[] priceBounds;
+    private final boolean rebuildOnStartup;
+
+    public ProductFacetService(ProductFacetRepository productFacetRepository,
+                               CatalogVersionRepository catalogVersionRepository,
+                               JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               @Value("${product.facets.price-bounds:25,50,100,250,500,1000}") List<BigDecimal> priceBounds,
+                               @Value("${product.facets.rebuild-on-startup:false}") boolean rebuildOnStartup) {
+        this.productFacetRepository = productFacetRepository;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.priceBounds = priceBounds.stream().sorted().toArray(BigDecimal[]::new);
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    /** Counts a product in (delta +1) or out (delta -1) of its facets; inactive products are not counted. */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(Product product, int delta) {
+        if (!Boolean.TRUE.equals(product.getActive())) {
+            return;
+        }
+        productFacetRepository.add(ProductFacet.CATEGORY, product.getCategory(), delta);
+        productFacetRepository.add(ProductFacet.PRICE, bucketFloor(product.getPrice()).toPlainString(), delta);
+    }
+
+    /**
+     * Applies the facet changes of many writes at once: one upsert per distinct facet value, taken in a fixed
+     * order so concurrent batches lock the rows alike.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void applyAll(Collection<Product> removed, Collection<Product> added) {
+        Map<ProductFacet.Key, Long> deltas = new TreeMap<>(Comparator.comparing(ProductFacet.Key::getFacet)
+                .thenComparing(ProductFacet.Key::getValue));
+        tally(removed, -1, deltas);
+        tally(added, 1, deltas);
+        deltas.forEach((key, delta) -> {
+            if (delta != 0) {
+                productFacetRepository.add(key.getFacet(), key.getValue(), delta);
+            }
+        });
+    }
+
+    public ProductFacetsResponse getFacets() {
+        List<ProductFacetsResponse.CategoryCount> categories = productFacetRepository
+                .findByFacetAndProductCountGreaterThan(ProductFacet.CATEGORY, 0).stream()
+                .map(f -> new ProductFacetsResponse.CategoryCount(f.getValue(), f.getProductCount()))
+                .sorted(Comparator.comparingLong(ProductFacetsResponse.CategoryCount::getCount).reversed()
+                        .thenComparing(ProductFacetsResponse.CategoryCount::getCategory))
+                .collect(Collectors.toList());
+        List<ProductFacetsResponse.PriceRangeCount> priceRanges = productFacetRepository
+                .findByFacetAndProductCountGreaterThan(ProductFacet.PRICE, 0).stream()
+                .map(f -> {
+                    BigDecimal min = new BigDecimal(f.getValue());
+                    return new ProductFacetsResponse.PriceRangeCount(min, upperBound(min), f.getProductCount());
+                })
+                .sorted(Comparator.comparing(ProductFacetsResponse.PriceRangeCount::getMin))
+                .collect(Collectors.toList());
+        return ProductFacetsResponse.builder()
+                .categories(categories)
+                .priceRanges(priceRanges)
+                .build();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfNeeded() {
+        if (rebuildOnStartup || productFacetRepository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recounts every facet from the products table. The exclusive table lock makes concurrent writers wait, so
+     * each of their deltas lands either in the recount or on top of it, never in both. The catalog version is
+     * bumped in the same transaction, so cached facet responses revalidate against the new counts.
+     */
+    public void rebuild() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE product_facets IN EXCLUSIVE MODE");
+            jdbcTemplate.update("DELETE FROM product_facets");
+            jdbcTemplate.update("INSERT INTO product_facets (facet, facet_value, product_count) " +
+                    "SELECT ?, category, count(*) FROM products WHERE active GROUP BY category", ProductFacet.CATEGORY);
+            List<Object[]> buckets = new ArrayList<>();
+            jdbcTemplate.query("SELECT width_bucket(price, " + boundsArray() + ") AS bucket, count(*) AS n " +
+                    "FROM products WHERE active GROUP BY bucket", rs -> {
+                int bucket = rs.getInt("bucket");
+                BigDecimal floor = bucket == 0 ? BigDecimal.ZERO : priceBounds[bucket - 1];
+                buckets.add(new Object[]{ProductFacet.PRICE, floor.toPlainString(), rs.getLong("n")});
+            });
+            jdbcTemplate.batchUpdate("INSERT INTO product_facets (facet, facet_value, product_count) VALUES (?, ?, ?)", buckets);
+            catalogVersionRepository.increment();
+        });
+        log.info("Rebuilt product facet counts");
+    }
+
+    private void tally(Collection<Product> products, long delta, Map<ProductFacet.Key, Long> deltas) {
+        for (Product product : products) {
+            if (Boolean.TRUE.equals(product.getActive())) {
+                deltas.merge(new ProductFacet.Key(ProductFacet.CATEGORY, product.getCategory()), delta, Long::sum);
+                deltas.merge(new ProductFacet.Key(ProductFacet.PRICE, bucketFloor(product.getPrice()).toPlainString()),
+                        delta, Long::sum);
+            }
+        }
+    }
+
+    /** Lower bound of the price range {@code price} falls in; ranges are [bound_i, bound_i+1). */
+    private BigDecimal bucketFloor(BigDecimal price) {
+        BigDecimal floor = BigDecimal.ZERO;
+        for (BigDecimal bound : priceBounds) {
+            if (price.compareTo(bound) < 0) {
+                break;
+            }
+            floor = bound;
+        }
+        return floor;
+    }
+
+    private BigDecimal upperBound(BigDecimal floor) {
+        for (BigDecimal bound : priceBounds) {
+            if (bound.compareTo(floor) > 0) {
+                return bound;
+            }
+        }
+        return null;
+    }
+
+    private String boundsArray() {
+        return "ARRAY[" + Arrays.stream(priceBounds).map(BigDecimal::toPlainString).collect(Collectors.joining(","))
+                + "]::numeric[]";
+    }
+}
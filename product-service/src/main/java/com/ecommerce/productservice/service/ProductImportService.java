@@ -0,0 +1,276 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductImportFormat;
+import com.ecommerce.productservice.dto.ProductImportReport;
+import com.ecommerce.productservice.dto.ProductImportRow;
+import com.ecommerce.productservice.dto.ProductsImportedEvent;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product import keyed on SKU: rows are streamed from the upload, validated one at a time, and written in
+ * chunks of {@code product.import.chunk-size}, each in its own transaction with one batched upsert. Memory holds
+ * one chunk and the first {@code product.import.max-reported-errors} rejections, whatever the upload size.
+ * <p>
+ * Each chunk locks its existing rows, skips rows identical to what is stored, and applies facet deltas, a single
+ * catalog version bump and one {@link ProductsImportedEvent} alongside the upsert, so caches and the search index
+ * follow as they do for single writes. Chunks of concurrent imports are serialized by an advisory lock, which keeps
+ * the insert-or-update decision exact. Invalid rows are reported and skipped; a database error or malformed input
+ * stops the import after the last committed chunk, and since rows are matched on SKU, re-running the same file is
+ * safe.
+ */
+@Slf4j
+@Service
+public class ProductImportService {
+
+    /** Arbitrary application-wide advisory lock id held by each import chunk transaction. */
+    private static final long IMPORT_LOCK_ID = 4_701_200_048L;
+
+    private static final String SELECT_EXISTING = "SELECT id, sku, name, description, price, category, active " +
+            "FROM products WHERE sku = ANY(?) FOR UPDATE";
+    private static final String SELECT_IDS = "SELECT id FROM products WHERE sku = ANY(?)";
+    private static final String UPSERT = "INSERT INTO products " +
+            "(sku, name, description, price, category, active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (sku) DO UPDATE SET name = EXCLUDED.name, description = EXCLUDED.description, " +
+            "price = EXCLUDED.price, category = EXCLUDED.category, active = EXCLUDED.active, updated_at = EXCLUDED.updated_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ProductFacetService productFacetService;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader csvReader;
+    private final ObjectReader ndjsonReader;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                Validator validator,
+                                ProductFacetService productFacetService,
+                                CatalogVersionRepository catalogVersionRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                ObjectMapper objectMapper,
+                                @Value("${product.import.chunk-size:1000}") int chunkSize,
+                                @Value("${product.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.validator = validator;
+        this.productFacetService = productFacetService;
+        this.catalogVersionRepository = catalogVersionRepository;
+        this.eventPublisher = eventPublisher;
+        this.csvReader = new CsvMapper()
+                .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+                .enable(CsvParser.Feature.TRIM_SPACES)
+                .enable(CsvParser.Feature.IGNORE_TRAILING_UNMAPPABLE)
+                .readerFor(ProductImportRow.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.ndjsonReader = objectMapper.readerFor(ProductImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public ProductImportReport importProducts(InputStream input, ProductImportFormat format) {
+        long start = System.nanoTime();
+        ProductImportReport report = ProductImportReport.builder().format(format).build();
+        // Keyed by SKU; a SKU repeated within a chunk flushes the chunk first so the later row wins.
+        Map<String, ProductImportRow> chunk = new LinkedHashMap<>();
+        long line = 0;
+        long lastLine = 0;
+        try (MappingIterator<ProductImportRow> rows = (format == ProductImportFormat.CSV ? csvReader : ndjsonReader)
+                .readValues(input)) {
+            while (rows.hasNextValue()) {
+                line = rows.getCurrentLocation().getLineNr();
+                report.setRowsRead(report.getRowsRead() + 1);
+                ProductImportRow row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    reject(report, line, null, "Unreadable row: " + e.getOriginalMessage());
+                    continue;
+                }
+                String violation = validate(row);
+                if (violation != null) {
+                    reject(report, line, row.getSku(), violation);
+                    continue;
+                }
+                if (chunk.containsKey(row.getSku())) {
+                    flush(chunk, report, lastLine);
+                }
+                chunk.put(row.getSku(), row);
+                lastLine = line;
+                if (chunk.size() >= chunkSize) {
+                    flush(chunk, report, lastLine);
+                }
+            }
+            flush(chunk, report, lastLine);
+            report.setCompleted(true);
+        } catch (IOException e) {
+            report.setAbortReason("Malformed input near line " + line + ": " + e.getMessage());
+        } catch (DataAccessException e) {
+            report.setAbortReason("Database error: " + e.getMostSpecificCause().getMessage());
+        }
+        report.setDurationMs((System.nanoTime() - start) / 1_000_000);
+        log.info("Product import {}: {} rows read, {} inserted, {} updated, {} unchanged, {} rejected in {} ms{}",
+                report.isCompleted() ? "finished" : "aborted", report.getRowsRead(), report.getInserted(),
+                report.getUpdated(), report.getUnchanged(), report.getRejected(), report.getDurationMs(),
+                report.isCompleted() ? "" : " (" + report.getAbortReason() + ")");
+        return report;
+    }
+
+    private void flush(Map<String, ProductImportRow> chunk, ProductImportReport report, long lastLine) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        ChunkResult result = transactionTemplate.execute(status -> writeChunk(chunk.values()));
+        report.setInserted(report.getInserted() + result.inserted);
+        report.setUpdated(report.getUpdated() + result.updated);
+        report.setUnchanged(report.getUnchanged() + result.unchanged);
+        report.setChunksCommitted(report.getChunksCommitted() + 1);
+        report.setCommittedThroughLine(lastLine);
+        chunk.clear();
+    }
+
+    private ChunkResult writeChunk(Collection<ProductImportRow> rows) {
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(?)", (RowCallbackHandler) rs -> { }, IMPORT_LOCK_ID);
+        String[] skus = rows.stream().map(ProductImportRow::getSku).toArray(String[]::new);
+        Map<String, Product> existing = new HashMap<>();
+        jdbcTemplate.query(SELECT_EXISTING, ps -> setSkus(ps, skus), (RowCallbackHandler) rs -> {
+            Product product = Product.builder()
+                    .id(rs.getLong("id"))
+                    .sku(rs.getString("sku"))
+                    .name(rs.getString("name"))
+                    .description(rs.getString("description"))
+                    .price(rs.getBigDecimal("price"))
+                    .category(rs.getString("category"))
+                    .active(rs.getBoolean("active"))
+                    .build();
+            existing.put(product.getSku(), product);
+        });
+
+        ChunkResult result = new ChunkResult();
+        List<Product> removed = new ArrayList<>();
+        List<Product> added = new ArrayList<>();
+        List<Object[]> writes = new ArrayList<>();
+        List<Long> changedIds = new ArrayList<>();
+        List<String> insertedSkus = new ArrayList<>();
+        LocalDateTime now = LocalDateTime.now();
+        for (ProductImportRow row : rows) {
+            Product incoming = toProduct(row);
+            Product stored = existing.get(row.getSku());
+            if (stored != null && sameContent(stored, incoming)) {
+                result.unchanged++;
+                continue;
+            }
+            if (stored != null) {
+                removed.add(stored);
+                changedIds.add(stored.getId());
+                result.updated++;
+            } else {
+                insertedSkus.add(row.getSku());
+                result.inserted++;
+            }
+            added.add(incoming);
+            writes.add(new Object[]{incoming.getSku(), incoming.getName(), incoming.getDescription(),
+                    incoming.getPrice(), incoming.getCategory(), incoming.getActive(), now, now});
+        }
+        if (writes.isEmpty()) {
+            return result;
+        }
+        jdbcTemplate.batchUpdate(UPSERT, writes);
+        if (!insertedSkus.isEmpty()) {
+            String[] newSkus = insertedSkus.toArray(String[]::new);
+            changedIds.addAll(jdbcTemplate.query(SELECT_IDS, ps -> setSkus(ps, newSkus), (rs, i) -> rs.getLong(1)));
+        }
+        productFacetService.applyAll(removed, added);
+        catalogVersionRepository.increment();
+        eventPublisher.publishEvent(new ProductsImportedEvent(changedIds));
+        return result;
+    }
+
+    private String validate(ProductImportRow row) {
+        if (row == null) {
+            return "Empty row";
+        }
+        Set<ConstraintViolation<ProductImportRow>> violations = validator.validate(row);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void reject(ProductImportReport report, long line, String sku, String message) {
+        report.setRejected(report.getRejected() + 1);
+        if (report.getErrors().size() < maxReportedErrors) {
+            report.getErrors().add(new ProductImportReport.RowError(line, sku, message));
+        }
+    }
+
+    private static void setSkus(PreparedStatement ps, String[] skus) throws SQLException {
+        ps.setArray(1, ps.getConnection().createArrayOf("varchar", skus));
+    }
+
+    private static Product toProduct(ProductImportRow row) {
+        return Product.builder()
+                .sku(row.getSku())
+                .name(row.getName())
+                .description(row.getDescription())
+                .price(row.getPrice())
+                .category(row.getCategory())
+                .active(row.getActive() == null || row.getActive())
+                .build();
+    }
+
+    private static boolean sameContent(Product stored, Product incoming) {
+        return stored.getName().equals(incoming.getName())
+                && Objects.equals(stored.getDescription(), incoming.getDescription())
+                && stored.getPrice().compareTo(incoming.getPrice()) == 0
+                && stored.getCategory().equals(incoming.getCategory())
+                && stored.getActive().equals(incoming.getActive());
+    }
+
+    private static class ChunkResult {
+        long inserted;
+        long updated;
+        long unchanged;
+    }
+}
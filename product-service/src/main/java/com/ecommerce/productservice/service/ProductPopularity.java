@@ -0,0 +1,55 @@
+package com.ecommerce.productservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts product detail views in memory and adds them to {@code products.popularity} in one batch per interval,
+ * so a view costs no database write. Counts are approximate: views of an instance that dies before its next flush,
+ * or that race a flush, are lost.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductPopularity {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void recordView(Long productId) {
+        pending.computeIfAbsent(productId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(fixedDelayString = "${product.popularity.flush-interval-ms:30000}")
+    public void flush() {
+        List<Object[]> updates = new ArrayList<>();
+        for (Long id : pending.keySet()) {
+            LongAdder views = pending.remove(id);
+            if (views != null) {
+                updates.add(new Object[]{views.sum(), id});
+            }
+        }
+        if (updates.isEmpty()) {
+            return;
+        }
+        // Same row order on every instance, so concurrent flushes cannot deadlock.
+        updates.sort(Comparator.comparing(update -> (Long) update[1]));
+        try {
+            jdbcTemplate.batchUpdate("UPDATE products SET popularity = popularity + ? WHERE id = ?", updates);
+        } catch (DataAccessException e) {
+            log.warn("Dropped {} products' view counts: {}", updates.size(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,324 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductChangedEvent;
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.ProductSearchResponse;
+import com.ecommerce.productservice.dto.ProductsImportedEvent;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.exception.ValidationException;
+import com.ecommerce.productservice.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.ControlledRealTimeReopenThread;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embedded Lucene index over active products' name, description and category.
+ * <p>
+ * The index lives on local disk ({@code product.search.index-dir}) and is a cache of the products table: by
+ * default it is rebuilt from the database during startup, before the web server accepts requests, and afterwards
+ * kept current from {@link ProductChangedEvent}s once their transaction commits. Each instance holds its own index,
+ * so writes made on other instances arrive through {@link #reindex}, called for every id published on
+ * {@link ProductCache#INVALIDATION_CHANNEL}, and a periodic catch-up re-indexes whatever changed by
+ * {@code updated_at} in case a message was lost. A background thread reopens the searcher so changes are visible
+ * within {@code product.search.max-stale-ms}. Every field a result needs is stored in the index, so searching never
+ * touches the database.
+ */
+@Slf4j
+@Component
+public class ProductSearchIndex {
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    /** Deepest result a client can page to; relevance order past this is of little use and costs memory. */
+    private static final int MAX_RESULT_WINDOW = 10_000;
+    private static final Map<String, Float> BOOSTS = Map.of("name", 3f, "category", 2f, "description", 1f);
+    /** How far before the last catch-up the next one starts, for transactions that committed after it ran. */
+    private static final Duration CATCH_UP_OVERLAP = Duration.ofMinutes(1);
+
+    private final ProductRepository productRepository;
+    private final Path indexDir;
+    private final boolean rebuildOnStartup;
+    private final double maxStaleSec;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private FSDirectory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+    private ControlledRealTimeReopenThread<IndexSearcher> reopenThread;
+    private volatile LocalDateTime caughtUpTo = LocalDateTime.now();
+
+    public ProductSearchIndex(ProductRepository productRepository,
+                              @Value("${product.search.index-dir:${java.io.tmpdir}/product-search-index}") String indexDir,
+                              @Value("${product.search.rebuild-on-startup:true}") boolean rebuildOnStartup,
+                              @Value("${product.search.max-stale-ms:1000}") long maxStaleMs) {
+        this.productRepository = productRepository;
+        this.indexDir = Path.of(indexDir);
+        this.rebuildOnStartup = rebuildOnStartup;
+        this.maxStaleSec = maxStaleMs / 1000.0;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(indexDir);
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND)
+                .setRAMBufferSizeMB(64));
+        searcherManager = new SearcherManager(writer, null);
+        reopenThread = new ControlledRealTimeReopenThread<>(writer, searcherManager, maxStaleSec, Math.min(0.1, maxStaleSec));
+        reopenThread.setName("product-search-reopen");
+        reopenThread.setDaemon(true);
+        reopenThread.start();
+        if (rebuildOnStartup || writer.getDocStats().numDocs == 0) {
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        reopenThread.close();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /** Re-indexes every product from the database, replacing the whole index. */
+    public synchronized void rebuild() throws IOException {
+        long start = System.nanoTime();
+        LocalDateTime startedAt = LocalDateTime.now();
+        writer.deleteAll();
+        long indexed = 0;
+        long lastId = 0;
+        List<Product> batch;
+        do {
+            batch = productRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            for (Product product : batch) {
+                if (Boolean.TRUE.equals(product.getActive())) {
+                    writer.addDocument(toDocument(product));
+                    indexed++;
+                }
+            }
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+        writer.commit();
+        searcherManager.maybeRefreshBlocking();
+        caughtUpTo = startedAt;
+        log.info("Rebuilt product search index: {} products in {} ms", indexed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener
+    public void onProductChanged(ProductChangedEvent event) {
+        Term id = new Term("id", String.valueOf(event.getProductId()));
+        try {
+            Product product = event.isDeleted() ? null : productRepository.findById(event.getProductId()).orElse(null);
+            if (product == null || !Boolean.TRUE.equals(product.getActive())) {
+                writer.deleteDocuments(id);
+            } else {
+                writer.updateDocument(id, toDocument(product));
+            }
+        } catch (IOException e) {
+            // The database change has committed; the next rebuild repairs the index.
+            log.error("Failed to index product {}: {}", event.getProductId(), e.getMessage(), e);
+        }
+    }
+
+    /** Re-indexes a committed import chunk with one database read. */
+    @TransactionalEventListener
+    public void onProductsImported(ProductsImportedEvent event) {
+        reindex(event.getProductIds());
+    }
+
+    /**
+     * Brings the given products up to date from the database with one read, removing those that are gone or
+     * inactive. Used for import chunks and for changes made on other instances.
+     */
+    public void reindex(Collection<Long> productIds) {
+        Set<Long> missing = new HashSet<>(productIds);
+        try {
+            for (Product product : productRepository.findAllById(productIds)) {
+                missing.remove(product.getId());
+                index(product);
+            }
+            for (Long id : missing) {
+                writer.deleteDocuments(new Term("id", String.valueOf(id)));
+            }
+        } catch (IOException e) {
+            log.error("Failed to index {} products: {}", productIds.size(), e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Re-indexes products whose {@code updated_at} moved since the last catch-up, whichever instance wrote them.
+     * This repairs updates whose invalidation message was lost; a lost delete is repaired by the next rebuild.
+     */
+    @Scheduled(fixedDelayString = "${product.search.catch-up-interval-ms:30000}")
+    public void catchUp() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime since = caughtUpTo.minus(CATCH_UP_OVERLAP);
+        long lastId = 0;
+        long seen = 0;
+        List<Product> batch;
+        try {
+            do {
+                batch = productRepository.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(since, lastId,
+                        PageRequest.of(0, REBUILD_BATCH_SIZE));
+                for (Product product : batch) {
+                    index(product);
+                    lastId = product.getId();
+                }
+                seen += batch.size();
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            caughtUpTo = startedAt;
+            log.debug("Search index catch-up re-indexed {} products changed since {}", seen, since);
+        } catch (IOException | DataAccessException e) {
+            log.error("Search index catch-up failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Ranks active products by relevance to {@code text} (name weighs most, then category, then description).
+     * A blank text matches everything; {@code category} filters on the exact category.
+     */
+    public ProductSearchResponse search(String text, String category, int page, int size) {
+        if ((long) (page + 1) * size > MAX_RESULT_WINDOW) {
+            throw new ValidationException("Cannot page beyond the first " + MAX_RESULT_WINDOW + " results");
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder()
+                .add(parse(text), BooleanClause.Occur.MUST);
+        if (category != null && !category.isBlank()) {
+            query.add(new TermQuery(new Term("category_exact", category)), BooleanClause.Occur.FILTER);
+        }
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            TopDocs top = searcher.search(query.build(), (page + 1) * size);
+            List<ProductResponse> items = new ArrayList<>();
+            ScoreDoc[] hits = top.scoreDocs;
+            for (int i = page * size; i < hits.length; i++) {
+                items.add(toResponse(searcher.storedFields().document(hits[i].doc)));
+            }
+            return ProductSearchResponse.builder()
+                    .items(items)
+                    .totalHits(top.totalHits.value)
+                    .page(page)
+                    .size(size)
+                    .build();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Product search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Failed to release searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Adds or replaces an active product's document, or removes an inactive one's. */
+    private void index(Product product) throws IOException {
+        Term id = new Term("id", String.valueOf(product.getId()));
+        if (Boolean.TRUE.equals(product.getActive())) {
+            writer.updateDocument(id, toDocument(product));
+        } else {
+            writer.deleteDocuments(id);
+        }
+    }
+
+    private Query parse(String text) {
+        if (text == null || text.isBlank()) {
+            return new MatchAllDocsQuery();
+        }
+        MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                BOOSTS.keySet().toArray(String[]::new), analyzer, BOOSTS);
+        parser.setDefaultOperator(QueryParser.Operator.AND);
+        try {
+            // Escaped: the text is searched as words, not as Lucene query syntax.
+            return parser.parse(QueryParser.escape(text));
+        } catch (ParseException e) {
+            throw new ValidationException("Invalid search text");
+        }
+    }
+
+    private static Document toDocument(Product product) {
+        Document doc = new Document();
+        doc.add(new StringField("id", String.valueOf(product.getId()), Field.Store.YES));
+        if (product.getSku() != null) {
+            doc.add(new StoredField("sku", product.getSku()));
+        }
+        doc.add(new TextField("name", product.getName(), Field.Store.YES));
+        if (product.getDescription() != null) {
+            doc.add(new TextField("description", product.getDescription(), Field.Store.YES));
+        }
+        doc.add(new TextField("category", product.getCategory(), Field.Store.YES));
+        doc.add(new StringField("category_exact", product.getCategory(), Field.Store.NO));
+        doc.add(new StoredField("price", product.getPrice().toPlainString()));
+        if (product.getCreatedAt() != null) {
+            doc.add(new StoredField("createdAt", product.getCreatedAt().toString()));
+        }
+        if (product.getUpdatedAt() != null) {
+            doc.add(new StoredField("updatedAt", product.getUpdatedAt().toString()));
+        }
+        return doc;
+    }
+
+    private static ProductResponse toResponse(Document doc) {
+        String createdAt = doc.get("createdAt");
+        String updatedAt = doc.get("updatedAt");
+        return ProductResponse.builder()
+                .id(Long.parseLong(doc.get("id")))
+                .sku(doc.get("sku"))
+                .name(doc.get("name"))
+                .description(doc.get("description"))
+                .price(new BigDecimal(doc.get("price")))
+                .category(doc.get("category"))
+                .active(true)
+                .createdAt(createdAt != null ? LocalDateTime.parse(createdAt) : null)
+                .updatedAt(updatedAt != null ? LocalDateTime.parse(updatedAt) : null)
+                .build();
+    }
+}
@@ -1,22 +1,53 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.productservice.dto.ProductChangedEvent;
+import com.ecommerce.productservice.dto.ProductFacetsResponse;
+import com.ecommerce.productservice.dto.ProductPageResponse;
 import com.ecommerce.productservice.dto.ProductRequest;
 import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.dto.ProductSearchResponse;
+import com.ecommerce.productservice.dto.ProductSort;
+import com.ecommerce.productservice.dto.ProductSuggestion;
 import com.ecommerce.productservice.entity.Product;
 import com.ecommerce.productservice.exception.ResourceNotFoundException;
+import com.ecommerce.productservice.exception.ValidationException;
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import com.ecommerce.productservice.repository.ProductQueryRepository;
 import com.ecommerce.productservice.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_SUGGEST_PREFIX = 100;
+
     private final ProductRepository productRepository;
+    private final ProductQueryRepository productQueryRepository;
+    private final ProductSearchIndex productSearchIndex;
+    private final ProductCache productCache;
+    private final ProductFacetService productFacetService;
+    private final ProductSuggester productSuggester;
+    private final ProductPopularity productPopularity;
+    private final ProductColumnStore productColumnStore;
+    private final CatalogVersionRepository catalogVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProductResponse createProduct(ProductRequest request) {
@@ -28,13 +59,22 @@ public class ProductService {
                 .active(true)
                 .build();
         product = productRepository.save(product);
+        productFacetService.apply(product, 1);
+        catalogVersionRepository.increment();
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), false));
         return mapToResponse(product);
     }
 
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
-        return mapToResponse(product);
+        ProductResponse product = productCache.get(id, () -> mapToResponse(productRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id))));
+        productPopularity.recordView(id);
+        return product;
+    }
+
+    /** Changes whenever any product is created, updated or deleted; list ETags are derived from it. */
+    public long getCatalogVersion() {
+        return catalogVersionRepository.current();
     }
 
     public List<ProductResponse> getAllProducts() {
@@ -49,35 +89,144 @@ public class ProductService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * One page of the catalog. Pass the previous page's nextCursor, with the same filters and sort, to continue.
+     */
+    public ProductPageResponse getProductPage(String category, BigDecimal minPrice, BigDecimal maxPrice,
+                                              boolean activeOnly, ProductSort sort, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (minPrice != null && maxPrice != null && minPrice.compareTo(maxPrice) > 0) {
+            throw new ValidationException("minPrice must not exceed maxPrice");
+        }
+        Product after = cursor != null && !cursor.isBlank() ? decodeCursor(cursor, sort) : null;
+        String categoryFilter = category != null && !category.isBlank() ? category : null;
+        // Fetch one extra row to know whether another page follows.
+        List<Long> ids = productColumnStore.findPage(categoryFilter, minPrice, maxPrice, activeOnly, sort, after, size + 1);
+        List<Product> page;
+        boolean hasMore;
+        if (ids != null) {
+            hasMore = ids.size() > size;
+            page = hydrate(hasMore ? ids.subList(0, size) : ids);
+        } else {
+            List<Product> rows = productQueryRepository.findPage(categoryFilter, minPrice, maxPrice, activeOnly, sort,
+                    after != null ? sortKey(after, sort) : null, after != null ? after.getId() : null, size + 1);
+            hasMore = rows.size() > size;
+            page = hasMore ? rows.subList(0, size) : rows;
+        }
+        Product last = page.isEmpty() ? null : page.get(page.size() - 1);
+        return ProductPageResponse.builder()
+                .items(page.stream().map(this::mapToResponse).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(last, sort) : null)
+                .build();
+    }
+
+    /** Full-text search over active products, best match first. */
+    public ProductSearchResponse searchProducts(String text, String category, int page, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new ValidationException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (page < 0) {
+            throw new ValidationException("Page must not be negative");
+        }
+        return productSearchIndex.search(text, category, page, size);
+    }
+
+    /** Typeahead: active products whose name starts with {@code prefix}, most viewed first. */
+    public List<ProductSuggestion> suggestProducts(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        if (prefix == null || prefix.isBlank() || prefix.length() > MAX_SUGGEST_PREFIX) {
+            throw new ValidationException("Prefix must be 1 to " + MAX_SUGGEST_PREFIX + " characters");
+        }
+        return productSuggester.suggest(prefix.stripLeading(), limit);
+    }
+
+    /** Active product counts per category and price range. */
+    public ProductFacetsResponse getFacets() {
+        return productFacetService.getFacets();
+    }
+
     @Transactional
     public ProductResponse updateProduct(Long id, ProductRequest request) {
-        Product product = productRepository.findById(id)
+        // Locked so concurrent updates apply their facet deltas against the row they actually replace.
+        Product product = productRepository.lockById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        productFacetService.apply(product, -1);
         product.setName(request.getName());
         product.setDescription(request.getDescription());
         product.setPrice(request.getPrice());
         product.setCategory(request.getCategory());
         product = productRepository.save(product);
+        productFacetService.apply(product, 1);
+        catalogVersionRepository.increment();
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId(), false));
         return mapToResponse(product);
     }
 
     @Transactional
     public void deleteProduct(Long id) {
-        if (!productRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Product not found with id: " + id);
+        Product product = productRepository.lockById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
+        productFacetService.apply(product, -1);
+        productRepository.delete(product);
+        catalogVersionRepository.increment();
+        eventPublisher.publishEvent(new ProductChangedEvent(id, true));
+    }
+
+    /** Loads the given products, keeping the order of {@code ids}; products deleted meanwhile are left out. */
+    private List<Product> hydrate(List<Long> ids) {
+        Map<Long, Product> byId = productRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    private static Object sortKey(Product product, ProductSort sort) {
+        return switch (sort) {
+            case NEWEST -> product.getCreatedAt();
+            case PRICE_ASC, PRICE_DESC -> product.getPrice();
+            case NAME -> product.getName();
+        };
+    }
+
+    /** The cursor carries its sort so it cannot be replayed against a different order. */
+    private static String encodeCursor(Product product, ProductSort sort) {
+        String raw = sort + "|" + product.getId() + "|" + sortKey(product, sort);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a cursor into the (sort key, id) position of the last row of the previous page. */
+    private static Product decodeCursor(String cursor, ProductSort sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|", 3);
+            if (parts.length != 3 || !parts[0].equals(sort.name())) {
+                throw new ValidationException("Invalid cursor");
+            }
+            Product after = Product.builder().id(Long.parseLong(parts[1])).build();
+            switch (sort) {
+                case NEWEST -> after.setCreatedAt(LocalDateTime.parse(parts[2]));
+                case PRICE_ASC, PRICE_DESC -> after.setPrice(new BigDecimal(parts[2]));
+                case NAME -> after.setName(parts[2]);
+            }
+            return after;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
         }
-        productRepository.deleteById(id);
     }
 
     private ProductResponse mapToResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
+                .sku(product.getSku())
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
                 .category(product.getCategory())
                 .active(product.getActive())
                 .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
                 .build();
     }
 }
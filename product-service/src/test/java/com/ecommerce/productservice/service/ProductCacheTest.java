@@ -0,0 +1,121 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductChangedEvent;
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.exception.ResourceNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductCacheTest {
+
+    private final StringRedisTemplate redis = mock(StringRedisTemplate.class);
+
+    @Test
+    void evictionDuringALoadIsNotBlockedAndDropsTheLoadedValue() throws Exception {
+        ProductCache cache = cache(false);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ProductResponse> slowRead = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loading.countDown();
+            await(release);
+            return product(1L, "old");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> cache.evictLocal(1L));
+        release.countDown();
+
+        assertThat(slowRead.get(5, TimeUnit.SECONDS).getName()).isEqualTo("old");
+        assertThat(cache.get(1L, () -> product(1L, "new")).getName()).isEqualTo("new");
+    }
+
+    @Test
+    void concurrentReadersShareOneLoad() throws Exception {
+        ProductCache cache = cache(false);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ProductResponse> first = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return product(1L, "a");
+        }));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<ProductResponse> second = CompletableFuture.supplyAsync(() -> cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return product(1L, "b");
+        }));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getName()).isEqualTo("a");
+        assertThat(second.get(5, TimeUnit.SECONDS).getName()).isEqualTo("a");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void failedLoadIsRethrownAndNotCached() {
+        ProductCache cache = cache(false);
+
+        assertThatThrownBy(() -> cache.get(1L, () -> {
+            throw new ResourceNotFoundException("Product not found with id: 1");
+        })).isInstanceOf(ResourceNotFoundException.class);
+
+        assertThat(cache.get(1L, () -> product(1L, "created")).getName()).isEqualTo("created");
+    }
+
+    @Test
+    void writeTombstonesTheSharedEntryAndLoadsDoNotOverwriteIt() {
+        @SuppressWarnings("unchecked")
+        ValueOperations<String, String> values = mock(ValueOperations.class);
+        when(redis.opsForValue()).thenReturn(values);
+        when(values.get("product:1")).thenReturn("deleted");
+        when(values.setIfAbsent(eq("product:1:lock"), anyString(), any(Duration.class))).thenReturn(true);
+        ProductCache cache = cache(true);
+
+        cache.onProductChanged(new ProductChangedEvent(1L, false));
+        verify(redis).execute(any(RedisScript.class), eq(List.of("product:1")), eq("deleted"), eq("30000"));
+
+        assertThat(cache.get(1L, () -> product(1L, "fresh")).getName()).isEqualTo("fresh");
+        verify(redis).execute(any(RedisScript.class), eq(List.of("product:1")), anyString(), eq("deleted"),
+                eq("600000"));
+    }
+
+    private ProductCache cache(boolean redisEnabled) {
+        return new ProductCache(redis, new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(), 100,
+                Duration.ofMinutes(1), redisEnabled, Duration.ofMinutes(10), Duration.ofSeconds(30));
+    }
+
+    private static ProductResponse product(Long id, String name) {
+        return ProductResponse.builder().id(id).name(name).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductSort;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pages served by {@link ProductColumnStore} match a brute-force filter, sort and seek over the same rows, i.e.
+ * what the keyset SQL returns, for random filters, every supported sort and every page of the walk. The catalog
+ * has many equal prices and creation times so the id tie-breaks are exercised.
+ */
+class ProductColumnStoreEquivalenceTest {
+
+    private static final int PRODUCTS = 3_000;
+    private static final int QUERIES = 300;
+
+    private final Random random = new Random(42);
+    private final List<Product> catalog = new ArrayList<>();
+    private ProductColumnStore store;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        LocalDateTime epoch = LocalDateTime.of(2024, 1, 1, 0, 0);
+        for (long id = 1; id <= PRODUCTS; id++) {
+            catalog.add(Product.builder()
+                    .id(id)
+                    .price(BigDecimal.valueOf(random.nextInt(500) * 25L + 99, 2))
+                    .category("category-" + random.nextInt(8))
+                    .createdAt(epoch.plusSeconds(random.nextInt(200)).plusNanos(random.nextInt(3) * 1_000L))
+                    .active(true)
+                    .build());
+        }
+        CatalogVersionRepository versions = mock(CatalogVersionRepository.class);
+        when(versions.current()).thenReturn(1L);
+        store = new ProductColumnStore(jdbcServing(catalog), versions, new SimpleMeterRegistry(), true);
+        store.refresh();
+    }
+
+    @Test
+    void everyPageMatchesTheReferenceQuery() {
+        for (int q = 0; q < QUERIES; q++) {
+            String category = switch (random.nextInt(4)) {
+                case 0 -> null;
+                case 1 -> "unknown";
+                default -> "category-" + random.nextInt(8);
+            };
+            BigDecimal minPrice = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(130_000), 3);
+            BigDecimal maxPrice = random.nextBoolean() ? null : BigDecimal.valueOf(random.nextInt(130_000), 3);
+            ProductSort sort = List.of(ProductSort.NEWEST, ProductSort.PRICE_ASC, ProductSort.PRICE_DESC)
+                    .get(random.nextInt(3));
+            int limit = 1 + random.nextInt(60);
+
+            List<Product> expected = reference(category, minPrice, maxPrice, sort);
+            List<Long> walked = new ArrayList<>();
+            Product after = null;
+            List<Long> page;
+            do {
+                page = store.findPage(category, minPrice, maxPrice, true, sort, after, limit);
+                assertThat(page).as("query %d is served", q).isNotNull().hasSizeLessThanOrEqualTo(limit);
+                walked.addAll(page);
+                after = page.isEmpty() ? null : catalog.get((int) (page.get(page.size() - 1) - 1));
+            } while (page.size() == limit);
+
+            assertThat(walked)
+                    .as("category=%s min=%s max=%s sort=%s limit=%d", category, minPrice, maxPrice, sort, limit)
+                    .containsExactlyElementsOf(expected.stream().map(Product::getId).toList());
+        }
+    }
+
+    private List<Product> reference(String category, BigDecimal minPrice, BigDecimal maxPrice, ProductSort sort) {
+        Comparator<Product> order = switch (sort) {
+            case NEWEST -> Comparator.comparing(Product::getCreatedAt).thenComparing(Product::getId).reversed();
+            case PRICE_ASC -> Comparator.comparing(Product::getPrice).thenComparing(Product::getId);
+            case PRICE_DESC -> Comparator.comparing(Product::getPrice).thenComparing(Product::getId).reversed();
+            case NAME -> throw new IllegalArgumentException("not served by the column store");
+        };
+        Stream<Product> rows = catalog.stream().filter(Product::getActive);
+        if (category != null) {
+            rows = rows.filter(p -> p.getCategory().equals(category));
+        }
+        if (minPrice != null) {
+            rows = rows.filter(p -> p.getPrice().compareTo(minPrice) >= 0);
+        }
+        if (maxPrice != null) {
+            rows = rows.filter(p -> p.getPrice().compareTo(maxPrice) <= 0);
+        }
+        return rows.sorted(order).toList();
+    }
+
+    /** Serves the store's load query, {@code WHERE active AND id > ? ORDER BY id LIMIT ?}, from {@code rows}. */
+    private static JdbcTemplate jdbcServing(List<Product> rows) throws Exception {
+        Product[] current = new Product[1];
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenAnswer(inv -> current[0].getId());
+        when(resultSet.getBigDecimal("price")).thenAnswer(inv -> current[0].getPrice());
+        when(resultSet.getString("category")).thenAnswer(inv -> current[0].getCategory());
+        when(resultSet.getObject(eq("created_at"), eq(LocalDateTime.class))).thenAnswer(inv -> current[0].getCreatedAt());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            long afterId = inv.getArgument(2);
+            int limit = inv.getArgument(3);
+            List<Product> batch = rows.stream()
+                    .filter(p -> p.getActive() && p.getId() > afterId)
+                    .sorted(Comparator.comparing(Product::getId))
+                    .limit(limit)
+                    .toList();
+            for (Product product : batch) {
+                current[0] = product;
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        return jdbc;
+    }
+}
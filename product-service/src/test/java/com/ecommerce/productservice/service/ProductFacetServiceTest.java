@@ -0,0 +1,50 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import com.ecommerce.productservice.repository.ProductFacetRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class ProductFacetServiceTest {
+
+    private final CatalogVersionRepository catalogVersionRepository = mock(CatalogVersionRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ProductFacetService service = new ProductFacetService(mock(ProductFacetRepository.class),
+            catalogVersionRepository, jdbcTemplate, transactionTemplate, List.of(new BigDecimal("50")), false);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuildBumpsTheCatalogVersionInsideItsTransaction() {
+        service.rebuild();
+
+        ArgumentCaptor<Consumer<TransactionStatus>> work = ArgumentCaptor.forClass(Consumer.class);
+        verify(transactionTemplate).executeWithoutResult(work.capture());
+        verify(catalogVersionRepository, never()).increment();
+
+        work.getValue().accept(mock(TransactionStatus.class));
+
+        InOrder order = inOrder(jdbcTemplate, catalogVersionRepository);
+        order.verify(jdbcTemplate).execute("LOCK TABLE product_facets IN EXCLUSIVE MODE");
+        order.verify(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        order.verify(jdbcTemplate).batchUpdate(anyString(), anyList());
+        order.verify(catalogVersionRepository).increment();
+    }
+}
@@ -0,0 +1,288 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductImportFormat;
+import com.ecommerce.productservice.dto.ProductImportReport;
+import com.ecommerce.productservice.dto.ProductsImportedEvent;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Import chunking and reporting against an in-memory products table behind a mocked JdbcTemplate: the existing-row
+ * read, the batched upsert and the id read of new SKUs are served from {@link #table}.
+ */
+class ProductImportServiceTest {
+
+    private static final String HEADER = "sku,name,description,price,category,active\n";
+
+    /** Stored products by SKU. */
+    private final Map<String, Product> table = new LinkedHashMap<>();
+    private final ProductFacetService productFacetService = mock(ProductFacetService.class);
+    private final CatalogVersionRepository catalogVersionRepository = mock(CatalogVersionRepository.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final List<Integer> upsertBatchSizes = new ArrayList<>();
+    private long nextId = 100;
+    private int failUpsertNumber;
+
+    @Test
+    void upsertsBySkuAndSkipsUnchangedRows() throws Exception {
+        stored("A", "Desk Lamp", "19.99");
+        stored("B", "Desk Chair", "89.00");
+
+        ProductImportReport report = importCsv(10,
+                "A,Desk Lamp,,19.99,home,\n" +
+                "B,Desk Chair,,79.00,home,\n" +
+                "C,Desk Mat,,9.50,home,\n");
+
+        assertThat(report.isCompleted()).isTrue();
+        assertThat(report.getRowsRead()).isEqualTo(3);
+        assertThat(report.getInserted()).isEqualTo(1);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getUnchanged()).isEqualTo(1);
+        assertThat(report.getChunksCommitted()).isEqualTo(1);
+        assertThat(table.get("B").getPrice()).isEqualByComparingTo("79.00");
+        assertThat(table).containsKey("C");
+        assertThat(upsertBatchSizes).containsExactly(2);
+        verify(catalogVersionRepository, times(1)).increment();
+
+        ArgumentCaptor<List<Product>> removed = listCaptor();
+        ArgumentCaptor<List<Product>> added = listCaptor();
+        verify(productFacetService).applyAll(removed.capture(), added.capture());
+        assertThat(removed.getValue()).extracting(Product::getPrice).containsExactly(new BigDecimal("89.00"));
+        assertThat(added.getValue()).extracting(Product::getSku).containsExactly("B", "C");
+
+        ArgumentCaptor<ProductsImportedEvent> event = ArgumentCaptor.forClass(ProductsImportedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getProductIds()).containsExactlyInAnyOrder(table.get("B").getId(), table.get("C").getId());
+    }
+
+    @Test
+    void chunkWithNothingChangedWritesNothing() throws Exception {
+        stored("A", "Desk Lamp", "19.99");
+
+        ProductImportReport report = importCsv(10, "A,Desk Lamp,,19.99,home,true\n");
+
+        assertThat(report.getUnchanged()).isEqualTo(1);
+        assertThat(report.getChunksCommitted()).isEqualTo(1);
+        assertThat(upsertBatchSizes).isEmpty();
+        verify(catalogVersionRepository, times(0)).increment();
+    }
+
+    @Test
+    void flushesEveryChunkSizeRows() throws Exception {
+        ProductImportReport report = importCsv(2,
+                "A,Lamp A,,1.00,home,\n" +
+                "B,Lamp B,,1.00,home,\n" +
+                "C,Lamp C,,1.00,home,\n" +
+                "D,Lamp D,,1.00,home,\n" +
+                "E,Lamp E,,1.00,home,\n");
+
+        assertThat(report.getInserted()).isEqualTo(5);
+        assertThat(report.getChunksCommitted()).isEqualTo(3);
+        assertThat(upsertBatchSizes).containsExactly(2, 2, 1);
+        verify(catalogVersionRepository, times(3)).increment();
+    }
+
+    @Test
+    void repeatedSkuFlushesTheChunkSoTheLaterRowWins() throws Exception {
+        ProductImportReport report = importCsv(10,
+                "A,Lamp,,1.00,home,\n" +
+                "B,Chair,,2.00,home,\n" +
+                "A,Lamp v2,,3.00,home,\n" +
+                "C,Mat,,4.00,home,\n");
+
+        assertThat(report.getChunksCommitted()).isEqualTo(2);
+        assertThat(upsertBatchSizes).containsExactly(2, 2);
+        assertThat(report.getInserted()).isEqualTo(3);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(table.get("A").getName()).isEqualTo("Lamp v2");
+    }
+
+    @Test
+    void invalidRowsAreRejectedWithTheirLineAndSkipped() throws Exception {
+        ProductImportReport report = importCsv(10,
+                "A,Lamp,,1.00,home,\n" +
+                "B,,,2.00,home,\n" +
+                "C,Mat,,-4.00,home,\n" +
+                "D,Chair,,2.00,home,\n");
+
+        assertThat(report.isCompleted()).isTrue();
+        assertThat(report.getRowsRead()).isEqualTo(4);
+        assertThat(report.getInserted()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(ProductImportReport.RowError::getSku).containsExactly("B", "C");
+        assertThat(report.getErrors()).extracting(ProductImportReport.RowError::getLine).containsExactly(3L, 4L);
+        assertThat(report.getErrors().get(0).getMessage()).contains("name");
+        assertThat(report.getErrors().get(1).getMessage()).contains("price");
+        assertThat(table).containsOnlyKeys("A", "D");
+    }
+
+    @Test
+    void reportedErrorsAreCappedButAllRejectionsCounted() throws Exception {
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            csv.append("S").append(i).append(",,,1.00,home,\n");
+        }
+
+        ProductImportReport report = service(10, 3).importProducts(csv(csv.toString()), ProductImportFormat.CSV);
+
+        assertThat(report.getRejected()).isEqualTo(5);
+        assertThat(report.getErrors()).hasSize(3);
+    }
+
+    @Test
+    void unreadableNdjsonRowIsRejectedAndMalformedInputAbortsAfterTheLastCommittedChunk() throws Exception {
+        String ndjson = "{\"sku\":\"A\",\"name\":\"Lamp\",\"price\":1.00,\"category\":\"home\"}\n" +
+                "{\"sku\":\"B\",\"name\":\"Chair\",\"price\":\"cheap\",\"category\":\"home\"}\n" +
+                "{\"sku\":\"C\",\"name\":\"Mat\",\"price\":4.00,\"category\":\"home\"}\n" +
+                "{\"sku\":\"D\",\"name\":";
+
+        ProductImportReport report = service(1, 100).importProducts(
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), ProductImportFormat.NDJSON);
+
+        assertThat(report.isCompleted()).isFalse();
+        assertThat(report.getAbortReason()).startsWith("Malformed input near line");
+        assertThat(report.getRejected()).isEqualTo(1);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Unreadable row");
+        assertThat(report.getChunksCommitted()).isEqualTo(2);
+        assertThat(report.getCommittedThroughLine()).isEqualTo(3);
+        assertThat(table).containsOnlyKeys("A", "C");
+    }
+
+    @Test
+    void databaseErrorAbortsAndKeepsEarlierChunks() throws Exception {
+        failUpsertNumber = 2;
+
+        ProductImportReport report = importCsv(2,
+                "A,Lamp A,,1.00,home,\n" +
+                "B,Lamp B,,1.00,home,\n" +
+                "C,Lamp C,,1.00,home,\n" +
+                "D,Lamp D,,1.00,home,\n" +
+                "E,Lamp E,,1.00,home,\n");
+
+        assertThat(report.isCompleted()).isFalse();
+        assertThat(report.getAbortReason()).isEqualTo("Database error: connection lost");
+        assertThat(report.getChunksCommitted()).isEqualTo(1);
+        assertThat(report.getInserted()).isEqualTo(2);
+        assertThat(report.getCommittedThroughLine()).isEqualTo(3);
+    }
+
+    private ProductImportReport importCsv(int chunkSize, String rows) throws Exception {
+        return service(chunkSize, 100).importProducts(csv(rows), ProductImportFormat.CSV);
+    }
+
+    private static ByteArrayInputStream csv(String rows) {
+        return new ByteArrayInputStream((HEADER + rows).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void stored(String sku, String name, String price) {
+        table.put(sku, Product.builder().id(nextId++).sku(sku).name(name).price(new BigDecimal(price))
+                .category("home").active(true).build());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArgumentCaptor<List<Product>> listCaptor() {
+        return ArgumentCaptor.forClass((Class<List<Product>>) (Class<?>) List.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProductImportService service(int chunkSize, int maxReportedErrors) throws Exception {
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        return new ProductImportService(jdbcServingTable(), transactionTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), productFacetService, catalogVersionRepository,
+                eventPublisher, new ObjectMapper(), chunkSize, maxReportedErrors);
+    }
+
+    @SuppressWarnings("unchecked")
+    private JdbcTemplate jdbcServingTable() throws Exception {
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        Product[] current = new Product[1];
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenAnswer(inv -> current[0].getId());
+        when(resultSet.getString("sku")).thenAnswer(inv -> current[0].getSku());
+        when(resultSet.getString("name")).thenAnswer(inv -> current[0].getName());
+        when(resultSet.getString("description")).thenAnswer(inv -> current[0].getDescription());
+        when(resultSet.getBigDecimal("price")).thenAnswer(inv -> current[0].getPrice());
+        when(resultSet.getString("category")).thenAnswer(inv -> current[0].getCategory());
+        when(resultSet.getBoolean("active")).thenAnswer(inv -> current[0].getActive());
+        doAnswer(inv -> {
+            for (String sku : skus(inv.getArgument(1))) {
+                if (table.containsKey(sku)) {
+                    current[0] = table.get(sku);
+                    inv.<RowCallbackHandler>getArgument(2).processRow(resultSet);
+                }
+            }
+            return null;
+        }).when(jdbc).query(startsWith("SELECT id, sku"), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+        doAnswer(inv -> {
+            List<Long> ids = new ArrayList<>();
+            for (String sku : skus(inv.getArgument(1))) {
+                ids.add(table.get(sku).getId());
+            }
+            return ids;
+        }).when(jdbc).query(startsWith("SELECT id FROM"), any(PreparedStatementSetter.class), any(RowMapper.class));
+        doAnswer(inv -> {
+            List<Object[]> rows = inv.getArgument(1);
+            upsertBatchSizes.add(rows.size());
+            if (upsertBatchSizes.size() == failUpsertNumber) {
+                throw new DataAccessResourceFailureException("connection lost");
+            }
+            for (Object[] row : rows) {
+                Product existing = table.get((String) row[0]);
+                table.put((String) row[0], Product.builder()
+                        .id(existing != null ? existing.getId() : nextId++)
+                        .sku((String) row[0]).name((String) row[1]).description((String) row[2])
+                        .price((BigDecimal) row[3]).category((String) row[4]).active((Boolean) row[5])
+                        .build());
+            }
+            return new int[rows.size()];
+        }).when(jdbc).batchUpdate(anyString(), anyList());
+        return jdbc;
+    }
+
+    /** The SKUs a statement setter binds as its array parameter. */
+    private static String[] skus(PreparedStatementSetter setter) throws Exception {
+        PreparedStatement ps = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(ps.getConnection()).thenReturn(connection);
+        ArgumentCaptor<Object[]> skus = ArgumentCaptor.forClass(Object[].class);
+        setter.setValues(ps);
+        verify(connection).createArrayOf(eq("varchar"), skus.capture());
+        return (String[]) skus.getValue();
+    }
+}
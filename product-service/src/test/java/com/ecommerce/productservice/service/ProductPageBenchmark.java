@@ -0,0 +1,168 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductSort;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.CatalogVersionRepository;
+import com.ecommerce.productservice.repository.ProductQueryRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * First page of 20 of the product listing over {@code products} active products, per sort and filter: through the
+ * keyset JPA query the service falls back to ({@code jpa}), and through {@link ProductColumnStore} plus the
+ * primary-key read that hydrates its ids ({@code columnStore}; {@code columnStoreIdsOnly} is the in-memory part
+ * alone). The catalog is {@link SyntheticCatalog}, loaded into PostgreSQL started with Testcontainers (needs Docker),
+ * with the schema and indexes Hibernate generates from the entities. Each call picks a random category or price
+ * range, so it is not one cached plan and page.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="ProductPageBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductPageBenchmark {
+
+    private static final int PAGE = 20;
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"1000000"})
+    public long products;
+
+    @Param({"NEWEST", "PRICE_ASC"})
+    public ProductSort sort;
+
+    @Param({"none", "category", "price", "categoryAndPrice"})
+    public String filter;
+
+    private PostgreSQLContainer<?> container;
+    private HikariDataSource dataSource;
+    private LocalContainerEntityManagerFactoryBean entityManagerFactory;
+    private ProductQueryRepository productQueryRepository;
+    private ProductRepository productRepository;
+    private ProductColumnStore productColumnStore;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        container = new PostgreSQLContainer<>("postgres:16.2-alpine");
+        container.start();
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(container.getJdbcUrl());
+        config.setUsername(container.getUsername());
+        config.setPassword(container.getPassword());
+        config.addDataSourceProperty("reWriteBatchedInserts", true);
+        dataSource = new HikariDataSource(config);
+
+        entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactory.setDataSource(dataSource);
+        entityManagerFactory.setPackagesToScan(Product.class.getPackageName());
+        entityManagerFactory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactory.setJpaPropertyMap(Map.of(
+                "hibernate.hbm2ddl.auto", "create",
+                "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                "hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName()));
+        entityManagerFactory.afterPropertiesSet();
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory.getObject());
+
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        insertCatalog(jdbc);
+        jdbc.update("INSERT INTO catalog_version (id, version) VALUES (1, 1)");
+        jdbc.execute("VACUUM ANALYZE products");
+
+        JpaRepositoryFactory repositories = new JpaRepositoryFactory(entityManager);
+        productRepository = repositories.getRepository(ProductRepository.class);
+        productQueryRepository = new ProductQueryRepository(entityManager);
+        productColumnStore = new ProductColumnStore(jdbc, repositories.getRepository(CatalogVersionRepository.class),
+                new SimpleMeterRegistry(), true);
+        productColumnStore.refresh();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactory.destroy();
+        dataSource.close();
+        container.stop();
+    }
+
+    @Benchmark
+    public List<Product> jpa() {
+        Query q = query();
+        return productQueryRepository.findPage(q.category, q.minPrice, q.maxPrice, true, sort, null, null, PAGE + 1);
+    }
+
+    @Benchmark
+    public List<Product> columnStore() {
+        Query q = query();
+        List<Long> ids = productColumnStore.findPage(q.category, q.minPrice, q.maxPrice, true, sort, null, PAGE + 1);
+        return productRepository.findAllById(ids);
+    }
+
+    @Benchmark
+    public List<Long> columnStoreIdsOnly() {
+        Query q = query();
+        return productColumnStore.findPage(q.category, q.minPrice, q.maxPrice, true, sort, null, PAGE + 1);
+    }
+
+    private Query query() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String category = filter.startsWith("category")
+                ? SyntheticCatalog.category(random.nextInt(SyntheticCatalog.CATEGORIES)) : null;
+        BigDecimal minPrice = null;
+        BigDecimal maxPrice = null;
+        if (filter.endsWith("rice")) {
+            minPrice = BigDecimal.valueOf(1 + random.nextInt(900));
+            maxPrice = minPrice.add(BigDecimal.valueOf(50));
+        }
+        return new Query(category, minPrice, maxPrice);
+    }
+
+    private void insertCatalog(JdbcTemplate jdbc) {
+        List<Object[]> batch = new ArrayList<>(INSERT_BATCH);
+        for (long id = 1; id <= products; id++) {
+            Product p = SyntheticCatalog.product(id);
+            batch.add(new Object[]{p.getId(), p.getSku(), p.getName(), p.getDescription(), p.getPrice(),
+                    p.getCategory(), p.getActive(), p.getPopularity(), p.getCreatedAt(), p.getUpdatedAt()});
+            if (batch.size() == INSERT_BATCH || id == products) {
+                jdbc.batchUpdate("INSERT INTO products (id, sku, name, description, price, category, active, " +
+                        "popularity, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private record Query(String category, BigDecimal minPrice, BigDecimal maxPrice) {
+    }
+}
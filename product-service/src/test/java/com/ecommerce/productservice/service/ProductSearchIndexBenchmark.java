@@ -0,0 +1,85 @@
+package com.ecommerce.productservice.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Query latency of {@link ProductSearchIndex} over a synthetic catalog of {@code products} active products: a
+ * common single word, two words (AND), a word within one category, and browsing a category with no text. Each
+ * query fetches the first page of 20. Building the index for 1M products takes a minute or so before warmup.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="ProductSearchIndexBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSearchIndexBenchmark {
+
+    @Param({"1000000"})
+    public long products;
+
+    private Path indexDir;
+    private ProductSearchIndex index;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        indexDir = Files.createTempDirectory("product-search-benchmark");
+        index = new ProductSearchIndex(SyntheticCatalog.repository(products), indexDir.toString(), true, 1000);
+        index.open();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        index.close();
+        FileSystemUtils.deleteRecursively(indexDir);
+    }
+
+    @Benchmark
+    public Object oneWord() {
+        return index.search(word(), null, 0, 20);
+    }
+
+    @Benchmark
+    public Object twoWords() {
+        return index.search(word() + " " + word(), null, 0, 20);
+    }
+
+    @Benchmark
+    public Object wordInCategory() {
+        return index.search(word(), category(), 0, 20);
+    }
+
+    @Benchmark
+    public Object browseCategory() {
+        return index.search(null, category(), 0, 20);
+    }
+
+    private static String word() {
+        return SyntheticCatalog.WORDS[ThreadLocalRandom.current().nextInt(SyntheticCatalog.WORDS.length)];
+    }
+
+    private static String category() {
+        return SyntheticCatalog.category(ThreadLocalRandom.current().nextInt(SyntheticCatalog.CATEGORIES));
+    }
+}
@@ -0,0 +1,85 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.domain.Pageable;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Changes written by another instance reach this instance's index. */
+class ProductSearchIndexTest {
+
+    @TempDir
+    Path indexDir;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        when(productRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(product(1, "wireless mouse", true), product(2, "desk lamp", true)))
+                .thenReturn(List.of());
+        index = new ProductSearchIndex(productRepository, indexDir.toString(), true, 20);
+        index.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void reindexAppliesUpdatesAndDropsDeletedProducts() {
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(product(1, "wireless keyboard", true)));
+
+        index.reindex(List.of(1L, 2L));
+
+        await().untilAsserted(() -> {
+            assertThat(names("keyboard")).containsExactly("wireless keyboard");
+            assertThat(names("mouse")).isEmpty();
+            assertThat(names("lamp")).isEmpty();
+        });
+    }
+
+    @Test
+    void catchUpPicksUpProductsChangedElsewhere() {
+        when(productRepository.findByUpdatedAtGreaterThanEqualAndIdGreaterThanOrderByIdAsc(any(), anyLong(), any()))
+                .thenReturn(List.of(product(2, "desk lamp", false), product(3, "desk chair", true)));
+
+        index.catchUp();
+
+        await().untilAsserted(() -> assertThat(names("desk")).containsExactly("desk chair"));
+    }
+
+    private List<String> names(String text) {
+        return index.search(text, null, 0, 10).getItems().stream().map(ProductResponse::getName).toList();
+    }
+
+    private static Product product(long id, String name, boolean active) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .price(BigDecimal.TEN)
+                .category("home")
+                .active(active)
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
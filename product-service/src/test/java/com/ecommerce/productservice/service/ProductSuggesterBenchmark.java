@@ -0,0 +1,138 @@
+package com.ecommerce.productservice.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Top-10 lookup latency of {@link ProductSuggester} over {@code products} active names, for prefixes of 1, 3 and
+ * 10 characters taken from existing names, and the FST footprint, printed after the build. {@code REPETITIVE} names
+ * are the {@link SyntheticCatalog} ones (three words from a small vocabulary plus the id); {@code DISTINCT} names
+ * are 35 random letters in words of 3 to 8, so they share little beyond their first few characters.
+ * <p>
+ * {@code mvn -Pbenchmark test -Djmh.args="ProductSuggesterBenchmark"}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ProductSuggesterBenchmark {
+
+    public enum Names { REPETITIVE, DISTINCT }
+
+    @Param({"1000000"})
+    public long products;
+
+    @Param({"REPETITIVE", "DISTINCT"})
+    public Names names;
+
+    private Path tempDir;
+    private ProductSuggester suggester;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        tempDir = Files.createTempDirectory("product-suggest-benchmark");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        suggester = new ProductSuggester(jdbcServingNames(), null, registry, tempDir.toString(), Long.MAX_VALUE, 10_000);
+        long start = System.nanoTime();
+        suggester.maintain();
+        System.out.printf("%n%s: %.0f names, FST %.1f MB, built in %d s%n", names,
+                registry.get("products.suggest.names").gauge().value(),
+                registry.get("products.suggest.bytes").gauge().value() / (1024 * 1024),
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        suggester.close();
+        FileSystemUtils.deleteRecursively(tempDir);
+    }
+
+    @Benchmark
+    public Object oneChar() {
+        return suggester.suggest(prefix(1), 10);
+    }
+
+    @Benchmark
+    public Object threeChars() {
+        return suggester.suggest(prefix(3), 10);
+    }
+
+    @Benchmark
+    public Object tenChars() {
+        return suggester.suggest(prefix(10), 10);
+    }
+
+    private String prefix(int length) {
+        return name(ThreadLocalRandom.current().nextLong(products) + 1).substring(0, length);
+    }
+
+    private String name(long id) {
+        if (names == Names.REPETITIVE) {
+            return SyntheticCatalog.product(id).getName();
+        }
+        SplittableRandom random = new SplittableRandom(id);
+        StringBuilder name = new StringBuilder(35);
+        int wordEnd = 3 + random.nextInt(6);
+        while (name.length() < 35) {
+            if (name.length() == wordEnd) {
+                name.append(' ');
+                wordEnd += 4 + random.nextInt(6);
+            } else {
+                name.append((char) ('a' + random.nextInt(26)));
+            }
+        }
+        return name.toString();
+    }
+
+    /** Serves the rebuild query, {@code WHERE active AND id > ? ORDER BY id LIMIT ?}, over ids 1..products. */
+    private JdbcTemplate jdbcServingNames() throws Exception {
+        long[] current = new long[1];
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenAnswer(inv -> current[0]);
+        when(resultSet.getString("name")).thenAnswer(inv -> name(current[0]));
+        when(resultSet.getLong("popularity")).thenAnswer(inv -> new SplittableRandom(current[0]).nextLong(10_000));
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            long afterId = inv.getArgument(2);
+            int limit = inv.getArgument(3);
+            for (long id = afterId + 1; id <= Math.min(products, afterId + limit); id++) {
+                current[0] = id;
+                handler.processRow(resultSet);
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        return jdbc;
+    }
+}
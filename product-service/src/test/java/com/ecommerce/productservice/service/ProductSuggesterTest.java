@@ -0,0 +1,100 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.dto.ProductSuggestion;
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/** Changes made on other instances reach the suggestions through {@link ProductSuggester#refresh}. */
+class ProductSuggesterTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private ProductSuggester suggester;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JdbcTemplate jdbc = jdbcServing(List.of(product(1, "Gaming Mouse", true), product(2, "Gaming Laptop", true)));
+        suggester = new ProductSuggester(jdbc, productRepository, new SimpleMeterRegistry(), tempDir.toString(),
+                Long.MAX_VALUE, 10_000);
+        suggester.maintain();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        suggester.close();
+    }
+
+    @Test
+    void builtSuggestionsMatchOnPrefix() {
+        assertThat(names("gam")).containsExactlyInAnyOrder("Gaming Mouse", "Gaming Laptop");
+    }
+
+    @Test
+    void renameShowsUpAfterRefresh() {
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product(1, "Office Mouse", true)));
+
+        suggester.refresh(List.of(1L));
+
+        assertThat(names("gam")).containsExactly("Gaming Laptop");
+        assertThat(names("off")).containsExactly("Office Mouse");
+    }
+
+    @Test
+    void deletedAndDeactivatedProductsDisappearAfterRefresh() {
+        when(productRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(product(2, "Gaming Laptop", false)));
+
+        suggester.refresh(List.of(1L, 2L));
+
+        assertThat(names("gam")).isEmpty();
+    }
+
+    private List<String> names(String prefix) {
+        return suggester.suggest(prefix, 10).stream().map(ProductSuggestion::getName).toList();
+    }
+
+    private static Product product(long id, String name, boolean active) {
+        return Product.builder().id(id).name(name).active(active).popularity(10L).build();
+    }
+
+    /** Serves the rebuild query, {@code WHERE active AND id > ? ORDER BY id LIMIT ?}, from {@code rows}. */
+    private static JdbcTemplate jdbcServing(List<Product> rows) throws Exception {
+        Product[] current = new Product[1];
+        ResultSet resultSet = mock(ResultSet.class);
+        when(resultSet.getLong("id")).thenAnswer(inv -> current[0].getId());
+        when(resultSet.getString("name")).thenAnswer(inv -> current[0].getName());
+        when(resultSet.getLong("popularity")).thenAnswer(inv -> current[0].getPopularity());
+        JdbcTemplate jdbc = mock(JdbcTemplate.class);
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            long afterId = inv.getArgument(2);
+            for (Product product : rows) {
+                if (product.getId() > afterId) {
+                    current[0] = product;
+                    handler.processRow(resultSet);
+                }
+            }
+            return null;
+        }).when(jdbc).query(anyString(), any(RowCallbackHandler.class), any(), any());
+        return jdbc;
+    }
+}
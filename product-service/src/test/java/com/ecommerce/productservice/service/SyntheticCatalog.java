@@ -0,0 +1,75 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.productservice.entity.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Deterministic catalog of {@code size} active products with ids 1..size for benchmarks: three-word names drawn
+ * from a small vocabulary (so prefixes and terms repeat as in a real catalog), 50 categories, prices up to 1000.
+ */
+final class SyntheticCatalog {
+
+    static final String[] WORDS = {
+            "wireless", "mouse", "keyboard", "mechanical", "gaming", "laptop", "stand", "usb", "cable", "charger",
+            "phone", "case", "leather", "wallet", "running", "shoes", "trail", "jacket", "rain", "winter",
+            "coffee", "grinder", "espresso", "machine", "kettle", "electric", "steel", "bottle", "water", "filter",
+            "desk", "lamp", "led", "bulb", "smart", "speaker", "bluetooth", "headphones", "noise", "cancelling",
+            "backpack", "travel", "pillow", "memory", "foam", "mattress", "office", "chair", "ergonomic", "monitor",
+            "portable", "ssd", "drive", "external", "camera", "tripod", "lens", "cleaning", "kit", "yoga",
+            "mat", "fitness", "tracker", "watch", "band", "kitchen", "knife", "set", "cutting", "board"
+    };
+    static final int CATEGORIES = 50;
+
+    private SyntheticCatalog() {
+    }
+
+    static Product product(long id) {
+        SplittableRandom random = new SplittableRandom(id);
+        String name = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " "
+                + WORDS[random.nextInt(WORDS.length)] + " " + id;
+        LocalDateTime created = LocalDateTime.of(2024, 1, 1, 0, 0).plusSeconds(id * 7);
+        return Product.builder()
+                .id(id)
+                .sku("SKU-" + id)
+                .name(name)
+                .description("The " + name + " in " + WORDS[random.nextInt(WORDS.length)] + " finish")
+                .price(BigDecimal.valueOf(100 + random.nextInt(100_000), 2))
+                .category(category(random.nextInt(CATEGORIES)))
+                .active(true)
+                .popularity((long) random.nextInt(10_000))
+                .createdAt(created)
+                .updatedAt(created)
+                .build();
+    }
+
+    static String category(int code) {
+        return "category-" + code;
+    }
+
+    /** A repository whose id-ordered batch walk serves the catalog, for components that rebuild from it. */
+    static ProductRepository repository(long size) {
+        ProductRepository repository = mock(ProductRepository.class);
+        when(repository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class))).thenAnswer(inv -> {
+            long after = inv.getArgument(0);
+            int limit = inv.<Pageable>getArgument(1).getPageSize();
+            List<Product> batch = new ArrayList<>(limit);
+            for (long id = after + 1; id <= size && batch.size() < limit; id++) {
+                batch.add(product(id));
+            }
+            return batch;
+        });
+        return repository;
+    }
+}